@@ -1,311 +1,413 @@
 package game;
 
 import bagel.*;
-import bagel.util.Point;
-import java.util.Properties;
-import java.util.HashSet;
-import java.util.Set;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import game.core.Action;
 import game.core.Config;
-import game.core.GameObject;
-import game.IOUtils;
-import game.entities.Mario;
-import game.entities.Platform;
-import game.entities.DonkeyKong;
-import java.util.ArrayList;
-import java.util.List;
-import game.entities.Barrel;
-import game.entities.Hammer;
-import game.entities.Ladder;
-import game.entities.Bullet;
-import game.entities.Blaster;
-import game.entities.NormalMonkey;
-import game.entities.IntelligentMonkey;
-import game.entities.Banana;
+import game.core.ConfigSnapshot;
+import game.core.ConfigWatcher;
+import game.core.FixedTimestep;
+import game.core.GameInput;
+import game.core.GameSettings;
+import game.core.GameWorld;
+import game.diagnostics.FlightRecording;
+import game.diagnostics.FrameProfiler;
+import game.diagnostics.LevelLoadEvent;
+import game.diagnostics.Phase;
+import game.level.LevelSequence;
+import game.level.LevelSource;
+import game.metrics.GameMetrics;
+import game.metrics.PrometheusEndpoint;
+import game.render.AssetManager;
+import game.render.HudRenderer;
+import game.render.ProfilerOverlay;
+import game.render.TextLine;
+import game.render.WorldRenderer;
+import game.replay.Replay;
+import game.replay.ReplayRecorder;
+import game.replay.RewindBuffer;
 
 /**
  * The main class for the Shadow Donkey Kong game.
- * This class extends {@code AbstractGame} and is responsible for managing game initialization,
- * updates, rendering, and handling user input.
+ * This class extends {@code AbstractGame} and is responsible for the screens,
+ * rendering and handling user input. The gameplay rules themselves live in the
+ * headless {@link GameWorld}, which this class drives at a fixed tick rate
+ * regardless of the display refresh rate.
  */
 public class ShadowDonkeyKong extends AbstractGame {
+    private static final Logger LOGGER = Logger.getLogger(ShadowDonkeyKong.class.getName());
+
+    // Keys that start a level from the title screen, level 1 first
+    private static final Keys[] LEVEL_KEYS = {
+        Keys.NUM_1, Keys.NUM_2, Keys.NUM_3, Keys.NUM_4, Keys.NUM_5, Keys.NUM_6, Keys.NUM_7, Keys.NUM_8, Keys.NUM_9
+    };
+
     // Constants for UI layout
-    private static final int SCORE_DISPLAY_OFFSET_Y = 30;
     private static final int GAME_OVER_SCORE_OFFSET_Y = 60;
     private static final int CONTINUE_PROMPT_OFFSET_Y = 100;
-    private static final int SECONDS_PER_MINUTE = 60;
     
     // Constants for game messages
     private static final String GAME_OVER_MESSAGE = "GAME OVER, YOU LOST!";
     private static final String WIN_MESSAGE = "CONGRATULATIONS, YOU WON!";
-    private static final String SCORE_FORMAT = "SCORE %d";
-    private static final String TIME_LEFT_FORMAT = "TIME LEFT %d";
     private static final String FINAL_SCORE_FORMAT = "YOUR FINAL SCORE %d";
     private static final String CONTINUE_PROMPT = "PRESS SPACE TO CONTINUE...";
+
+    // Command line
+    private static final String RECORD_FLAG = "--record";
+    private static final String DEFAULT_RECORDING = "shadow-donkey-kong.jfr";
     
     // Game state enum
     private enum GameState { TITLE, PLAYING, GAME_OVER, WIN }
     
     // Game properties
-    private final Properties GAME_PROPS;
-    private final Properties MESSAGE_PROPS;
-    private Image background;
+    private final AssetManager assets;
     private GameState currentState = GameState.TITLE;
-    private int maxFrames;
-    private int currentFrame = 0;
-    private int currentLevel = 1;
+    private int currentLevel;
     private int totalScore = 0;
 
-    // Game entities
-    private Mario mario;
-    private DonkeyKong donkey;
-    private Hammer hammer;
-    private final List<Platform> platforms = new ArrayList<>();
-    private final List<Barrel> barrels = new ArrayList<>();
-    private final List<Ladder> ladders = new ArrayList<>();
-    private final List<Bullet> bullets = new ArrayList<>();
-    private final List<Blaster> blasters = new ArrayList<>();
-    private final List<NormalMonkey> normalMonkeys = new ArrayList<>();
-    private final List<IntelligentMonkey> intelligentMonkeys = new ArrayList<>();
-    private final List<Banana> bananas = new ArrayList<>();
+    // Re-reads the properties files when they change, null when config.watch is off
+    private final ConfigWatcher configWatcher;
+
+    // Phase timings, FrameProfiler.NONE when profiler.enabled is off at startup
+    private final FrameProfiler profiler;
+
+    // Live counters for JMX and Prometheus, null when metrics.enabled is off at startup
+    private final GameMetrics metrics;
+
+    // Everything below the world is built from the settings, and rebuilt when they are reloaded
+    private GameSettings settings;
+    private Image background;
+
+    // Level layouts of the current configuration, compiled or from the properties
+    private LevelSource levels;
+
+    // The level after the current one, built in the background while the current one is played
+    private final ExecutorService levelPrefetcher = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "level-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<GameWorld> nextWorld;
+
+    // Simulation and its renderer
+    private GameWorld world;
+    private WorldRenderer worldRenderer;
+    private HudRenderer hudRenderer;
+    private ProfilerOverlay profilerOverlay;
+    private FixedTimestep timestep;
+    private int pendingPresses = 0;
+
+    // Recent history for rewinding while the rewind key is held
+    private RewindBuffer rewindBuffer;
+    private int rewindSpeed;
+
+    // Screen text, laid out once per configuration
+    private TextLine titleText;
+    private TextLine promptText;
+    private TextLine gameOverText;
+    private TextLine winText;
+    private TextLine finalScoreText;
+    private TextLine continueText;
+
+    // Input recording, null when replay.record is off
+    private ReplayRecorder recorder;
 
     /**
-     * Initializes the game with the provided properties
+     * Initializes the game from the loaded configuration
      */
-    public ShadowDonkeyKong(Properties gameProps, Properties messageProps) {
-        super(Integer.parseInt(gameProps.getProperty("window.width")),
-              Integer.parseInt(gameProps.getProperty("window.height")),
-              messageProps.getProperty("home.title"));
-
-        this.GAME_PROPS = gameProps;
-        this.MESSAGE_PROPS = messageProps;
-        this.background = new Image(GAME_PROPS.getProperty("backgroundImage"));
-        
+    public ShadowDonkeyKong() {
+        super(Config.settings().getWindowWidth(),
+              Config.settings().getWindowHeight(),
+              Config.snapshot().getMsg("home.title"));
+
+        // Assets are set up once; changing their settings takes a restart
+        GameSettings startup = Config.settings();
+        this.assets = new AssetManager(startup.getAssetsDirectory());
+        if (startup.isAtlasEnabled()) {
+            assets.buildAtlas(startup.getAtlasMaxSize(), startup.getAtlasMaxRegionSize(), startup.getAtlasPadding());
+        }
+        if (startup.isPreloadAssets()) {
+            assets.preloadAll();
+        }
+        this.configWatcher = startup.isWatchConfig() ? watchConfig() : null;
+        this.profiler = startup.isProfilerEnabled() ? new FrameProfiler() : FrameProfiler.NONE;
+        if (profiler.isEnabled()) {
+            Path report = Paths.get(startup.getProfilerReport());
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> writeProfilerReport(report), "profiler-report"));
+        }
+        this.metrics = startup.isMetricsEnabled() ? publishMetrics(startup.getMetricsPort()) : null;
+
+        applyConfig(Config.snapshot());
+        currentLevel = settings.getLevelSequence().first();
         initializeGame();
     }
-    
+
     /**
-     * Initializes or resets all game entities to their starting state
+     * Starts re-reading the properties files when they change
+     *
+     * @return The watcher, or null if the files can't be watched
      */
-    private void initializeGame() {
-        // Load basic entities for all levels
-        loadPlatforms();
-        loadLadders();
-        connectLadders();
-        loadBarrels();
-        loadHammer();
-
-        // Load level 2 specific entities
-        if (currentLevel == 2) {
-            bullets.clear();
-            bananas.clear();
-            loadBlasters();
-            loadNormalMonkeys();
-            loadIntelligentMonkeys();
-        }        
-        
-        // Load player and enemy
-        initializePlayer();
-        initializeDonkey();
-
-        // Reset game timer
-        this.maxFrames = Config.getAppInt("gamePlay.maxFrames"); 
-        this.currentFrame = 0;
+    private static ConfigWatcher watchConfig() {
+        try {
+            return Config.watch();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to watch the configuration; changes need a restart", e);
+            return null;
+        }
     }
-    
+
     /**
-     * Initialize player character
+     * Registers the live counters over JMX and serves them to Prometheus.
+     * Either one failing is logged and the other still runs.
      */
-    private void initializePlayer() {
-        String[] marioCoords = Config.getApp("mario.level" + currentLevel).split(",");
-        mario = new Mario(
-            Double.parseDouble(marioCoords[0]),
-            Double.parseDouble(marioCoords[1]),
-            platforms
-        );
-        mario.addToScore(totalScore);
+    private static GameMetrics publishMetrics(int port) {
+        GameMetrics metrics = new GameMetrics();
+        try {
+            metrics.register();
+        } catch (JMException e) {
+            LOGGER.log(Level.WARNING, "Failed to register " + GameMetrics.OBJECT_NAME, e);
+        }
+        try {
+            PrometheusEndpoint endpoint = PrometheusEndpoint.start(metrics, port);
+            LOGGER.info(() -> "Serving metrics at http://127.0.0.1:" + endpoint.getPort() + PrometheusEndpoint.PATH);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to serve metrics on port " + port, e);
+        }
+        return metrics;
     }
-    
+
     /**
-     * Initialize Donkey Kong
+     * Writes the phase timings of the whole run as JSON
      */
-    private void initializeDonkey() {
-        String[] donkeyCoords = Config.getApp("donkey.level" + currentLevel).split(",");
-        donkey = new DonkeyKong(
-            Double.parseDouble(donkeyCoords[0]),
-            Double.parseDouble(donkeyCoords[1])
-        );
-        donkey.snapToPlatform(platforms);
+    private void writeProfilerReport(Path report) {
+        try {
+            profiler.writeJson(report);
+            LOGGER.info(() -> "Saved profiler report " + report);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to save profiler report " + report, e);
+        }
     }
-    
+
     /**
-     * Helper method to parse coordinates from a string in the format "x,y"
-     * 
-     * @param coordString The string containing coordinates
-     * @return Array of doubles [x, y]
+     * Builds everything that depends on the settings from a configuration
      */
-    private double[] parseCoordinates(String coordString) {
-        String[] parts = coordString.split(",");
-        return new double[] {
-            Double.parseDouble(parts[0].trim()),
-            Double.parseDouble(parts[1].trim())
-        };
+    private void applyConfig(ConfigSnapshot config) {
+        settings = config.getSettings();
+        background = assets.getImage(settings.getBackgroundImage());
+        levels = LevelSource.of(config);
+        cancelPrefetch();
+        // The background, platforms or ladders may have changed, so only the static layer is redone
+        if (worldRenderer != null) {
+            worldRenderer.invalidateStaticLayer();
+        }
+        if (worldRenderer == null || worldRenderer.isCachingStaticLayer() != settings.isCacheStaticLayer()) {
+            worldRenderer = new WorldRenderer(assets, settings.isCacheStaticLayer());
+        }
+        hudRenderer = new HudRenderer(assets, settings);
+
+        boolean overlayVisible = profilerOverlay != null && profilerOverlay.isVisible();
+        profilerOverlay = new ProfilerOverlay(profiler,
+                                              assets.getFont(settings.getFont(), settings.getProfilerOverlayFontSize()),
+                                              settings.getProfilerOverlayFontSize(),
+                                              settings.getProfilerOverlayX(), settings.getProfilerOverlayY());
+        if (overlayVisible) {
+            profilerOverlay.toggle();
+        }
+
+        String font = settings.getFont();
+        titleText = TextLine.fixed(assets.getFont(font, settings.getTitleFontSize()), config.getMsg("home.title"));
+        promptText = TextLine.fixed(assets.getFont(font, settings.getPromptFontSize()), config.getMsg("home.prompt"));
+        Font statusFont = assets.getFont(font, settings.getStatusFontSize());
+        Font scoresFont = assets.getFont(font, settings.getScoresFontSize());
+        gameOverText = TextLine.fixed(statusFont, GAME_OVER_MESSAGE);
+        winText = TextLine.fixed(statusFont, WIN_MESSAGE);
+        finalScoreText = TextLine.formatted(scoresFont, FINAL_SCORE_FORMAT, 0);
+        continueText = TextLine.fixed(scoresFont, CONTINUE_PROMPT);
+
+        timestep = new FixedTimestep(settings.getTickRate(), settings.getMaxSubSteps());
+        rewindBuffer = new RewindBuffer(settings.getRewindSeconds() * settings.getTickRate(),
+                                        settings.getRewindKeyframeInterval(),
+                                        settings.getRewindKeyframeBytes());
+        rewindSpeed = settings.getRewindSpeed();
     }
-    
+
     /**
-     * Loads platforms from configuration
+     * Publishes a configuration the watcher read since the last frame.
+     * Frames only start between ticks, so no tick sees two configurations.
+     * A level in progress restarts only if its layout or simulation settings
+     * changed; otherwise it keeps playing and only the renderers are rebuilt.
      */
-    private void loadPlatforms() {
-        platforms.clear();
-        String raw = Config.getApp("platforms.level" + currentLevel);
-        
-        if (raw.isEmpty()) {
-            System.err.println("No platform data found!");
+    private void applyConfigChanges() {
+        ConfigSnapshot changed = configWatcher != null ? configWatcher.poll() : null;
+        if (changed == null) {
             return;
         }
 
-        for (String pair : raw.split(";")) {
-            double[] coords = parseCoordinates(pair);
-            platforms.add(new Platform(coords[0], coords[1]));
+        Config.publish(changed);
+        applyConfig(changed);
+        if (currentState == GameState.PLAYING) {
+            if (world.getConfig().isSameSimulation(changed, currentLevel)) {
+                rewindBuffer.reset(world.getCurrentFrame());
+                prefetchNextLevel();
+            } else {
+                initializeGame();
+                LOGGER.info("Restarted the level with its changed layout or simulation settings");
+            }
         }
+        LOGGER.info("Applied the changed configuration");
+    }
+    
+    /**
+     * Initializes or resets the current level to its starting state
+     */
+    private void initializeGame() {
+        GameWorld fresh = buildWorld(levels, currentLevel);
+        fresh.carryOverScore(totalScore);
+        startLevel(fresh);
     }
 
     /**
-     * Loads barrels from configuration
+     * Builds a level in its starting state with no score carried over.
+     * Runs on the prefetch thread too, so it only uses what it is given.
      */
-    private void loadBarrels() {
-        barrels.clear();
-        int barrelCount = Config.getAppInt("barrel.level" + currentLevel + ".count");
-        
-        for (int i = 1; i <= barrelCount; i++) {
-            String coordString = Config.getApp("barrel.level" + currentLevel + "." + i);
-            double[] coords = parseCoordinates(coordString);
-            barrels.add(new Barrel(coords[0], coords[1]));
-        }
+    private static GameWorld buildWorld(LevelSource levels, int level) {
+        LevelLoadEvent event = new LevelLoadEvent();
+        event.begin();
+        GameWorld world = new GameWorld(levels.getConfig(), levels.get(level), 0);
+        event.level = level;
+        event.compiled = levels.isCompiled(level);
+        event.commit();
+        return world;
     }
-    
+
     /**
-     * Loads the hammer from configuration
+     * Makes a world the one being played and starts building the level after it
      */
-    private void loadHammer() {
-        String coordString = Config.getApp("hammer.level" + currentLevel + ".1");
-        double[] coords = parseCoordinates(coordString);
-        hammer = new Hammer(coords[0], coords[1]);
-    }  
-
-    private void loadBlasters() {
-        blasters.clear();
-        int count = Config.getAppInt("blaster.level" + currentLevel + ".count");
-        for (int i = 1; i <= count; i++) {
-            String coordString = Config.getApp("blaster.level" + currentLevel + "." + i);
-            double[] coords = parseCoordinates(coordString);
-            blasters.add(new Blaster(coords[0], coords[1]));
-        }
-    }   
-    
+    private void startLevel(GameWorld next) {
+        world = next;
+        world.setProfiler(profiler);
+        currentLevel = next.getLevel();
+        timestep.reset();
+        pendingPresses = 0;
+        rewindBuffer.reset(world.getCurrentFrame());
+        recorder = settings.isRecordReplays() ? new ReplayRecorder(currentLevel, totalScore) : null;
+        prefetchNextLevel();
+    }
+
     /**
-     * Helper method to parse monkey data from a configuration string
-     * 
-     * @param value The config value in format "x,y;direction;route"
-     * @return Array containing [x, y, direction, route]
+     * Starts building the level after the current one, and composing its
+     * static layer, on the prefetch thread
      */
-    private Object[] parseMonkeyData(String value) {
-        if (value == null || value.isEmpty()) {
-            return null;
-        }
-        
-        String[] parts = value.split(";");
-        if (parts.length != 3) {
-            return null;
+    private void prefetchNextLevel() {
+        cancelPrefetch();
+        LevelSequence sequence = settings.getLevelSequence();
+        if (!sequence.hasNext(currentLevel)) {
+            return;
         }
-        
-        double[] coords = parseCoordinates(parts[0]);
-        String direction = parts[1].trim();
-        String route = parts[2].trim();
-        
-        return new Object[] { coords[0], coords[1], direction, route };
+
+        int next = sequence.next(currentLevel);
+        LevelSource source = levels;
+        WorldRenderer renderer = worldRenderer;
+        nextWorld = levelPrefetcher.submit(() -> {
+            GameWorld prefetched = buildWorld(source, next);
+            renderer.prepareStaticLayer(prefetched);
+            return prefetched;
+        });
     }
-    
-    private void loadNormalMonkeys() {
-        normalMonkeys.clear();
-    
-        String countKey = "normalMonkey.level" + currentLevel + ".count";
-        String rawCount = Config.getApp(countKey);
-        if (rawCount == null || rawCount.trim().isEmpty()) return;
-    
-        int count = Integer.parseInt(rawCount.trim());
-     
-        for (int i = 1; i <= count; i++) {
-            String key = "normalMonkey.level" + currentLevel + "." + i;
-            String value = Config.getApp(key);
-            
-            Object[] monkeyData = parseMonkeyData(value);
-            if (monkeyData == null) continue;
-            
-            double x = (double) monkeyData[0];
-            double y = (double) monkeyData[1];
-            String direction = (String) monkeyData[2];
-            String route = (String) monkeyData[3];
-    
-            NormalMonkey monkey = new NormalMonkey(x, y, direction, route);
-            monkey.setPlatforms(platforms);
-            normalMonkeys.add(monkey);
+
+    /**
+     * Takes the prefetched next level, waiting for it if it is still being
+     * built, or builds it now if it was never prefetched or is out of date
+     */
+    private GameWorld takeNextLevel(int level) {
+        Future<GameWorld> pending = nextWorld;
+        nextWorld = null;
+        if (pending != null) {
+            try {
+                GameWorld prefetched = pending.get();
+                if (prefetched.getLevel() == level && prefetched.getConfig() == Config.snapshot()) {
+                    return prefetched;
+                }
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.WARNING, "Failed to prefetch level " + level, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
         }
-    } 
-    
-    private void loadIntelligentMonkeys() {
-        intelligentMonkeys.clear();
-    
-        String keyBase = "intelligentMonkey.level" + currentLevel;
-        int count = Config.getAppInt(keyBase + ".count");
-    
-        for (int i = 1; i <= count; i++) {
-            String key = keyBase + "." + i;
-            String value = Config.getApp(key);
-            
-            Object[] monkeyData = parseMonkeyData(value);
-            if (monkeyData == null) continue;
-            
-            double x = (double) monkeyData[0];
-            double y = (double) monkeyData[1];
-            String direction = (String) monkeyData[2];
-            String route = (String) monkeyData[3];
-    
-            IntelligentMonkey monkey = new IntelligentMonkey(x, y, direction, route);
-            monkey.setPlatforms(platforms);
-            intelligentMonkeys.add(monkey);
+        return buildWorld(levels, level);
+    }
+
+    private void cancelPrefetch() {
+        if (nextWorld != null) {
+            nextWorld.cancel(false);
+            nextWorld = null;
         }
     }
-    
+
     /**
-     * Loads ladders from configuration
+     * Writes the finished level's recording to the replay directory
      */
-    private void loadLadders() {
-        ladders.clear();
-        int ladderCount = Config.getAppInt("ladder.level" + currentLevel + ".count");
-    
-        for (int i = 1; i <= ladderCount; i++) {
-            String coordString = Config.getApp("ladder.level" + currentLevel + "." + i);
-            double[] coords = parseCoordinates(coordString);
-            ladders.add(new Ladder(coords[0], coords[1]));
+    private void saveReplay() {
+        Replay replay = recorder.finish(world);
+        recorder = null;
+
+        Path directory = Paths.get(settings.getReplayDirectory());
+        Path file = directory.resolve("level" + replay.getLevel() + "-" + System.currentTimeMillis() + Replay.FILE_EXTENSION);
+        try {
+            Files.createDirectories(directory);
+            replay.write(file);
+            LOGGER.info(() -> "Saved replay " + file);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to save replay " + file, e);
         }
-    }    
+    }
 
     /**
-     * Connects ladders to the appropriate platforms
+     * Reads the held movement keys as simulation action bits
      */
-    private void connectLadders() {
-        for (Ladder ladder : ladders) {
-            ladder.connectToPlatformAbove(platforms);
-        }
+    private static int readHeldActions(Input input) {
+        int bits = 0;
+        if (input.isDown(Keys.LEFT)) bits |= Action.LEFT.mask();
+        if (input.isDown(Keys.RIGHT)) bits |= Action.RIGHT.mask();
+        if (input.isDown(Keys.UP)) bits |= Action.UP.mask();
+        if (input.isDown(Keys.DOWN)) bits |= Action.DOWN.mask();
+        return bits;
+    }
+
+    /**
+     * Reads the keys pressed this frame as simulation action bits
+     */
+    private static int readPressedActions(Input input) {
+        int bits = 0;
+        if (input.wasPressed(Keys.SPACE)) bits |= Action.JUMP.mask();
+        if (input.wasPressed(Keys.S)) bits |= Action.SHOOT.mask();
+        return bits;
     }
 
     @Override
     protected void update(Input input) {
+        long start = profiler.start();
+
         if (input.wasPressed(Keys.ESCAPE)) {
             Window.close();
         }
 
-        background.draw(Window.getWidth() / 2.0, Window.getHeight() / 2.0);
+        applyConfigChanges();
+
+        // During gameplay the background is part of the world's static layer
+        if (currentState != GameState.PLAYING) {
+            background.draw(Window.getWidth() / 2.0, Window.getHeight() / 2.0);
+        }
 
         switch (currentState) {
             case TITLE:
@@ -321,24 +423,34 @@ public class ShadowDonkeyKong extends AbstractGame {
                 updateGamePlay(input);
                 break;
         }
+
+        profiler.stop(Phase.FRAME, start);
     }
     
     /**
      * Updates and renders the title screen
      */
     private void updateTitleScreen(Input input) {
-        drawCenteredText(Config.getMsg("home.title"), "home.title.fontSize", Config.getAppInt("home.title.y"));
-        drawCenteredText(Config.getMsg("home.prompt"), "home.prompt.fontSize", Config.getAppInt("home.prompt.y"));
+        titleText.drawCentred(Window.getWidth(), settings.getTitleY());
+        promptText.drawCentred(Window.getWidth(), settings.getPromptY());
     
+        LevelSequence sequence = settings.getLevelSequence();
         if (input.wasPressed(Keys.ENTER)) {
-            currentLevel = 1;
-            initializeGame();
-            currentState = GameState.PLAYING;
-        } else if (input.wasPressed(Keys.NUM_2)) {
-            currentLevel = 2;
+            currentLevel = sequence.first();
             initializeGame();
             currentState = GameState.PLAYING;
-        }        
+            return;
+        }
+
+        // A number key starts the level with that number
+        for (int i = 0; i < LEVEL_KEYS.length; i++) {
+            if (input.wasPressed(LEVEL_KEYS[i]) && sequence.contains(i + 1)) {
+                currentLevel = i + 1;
+                initializeGame();
+                currentState = GameState.PLAYING;
+                return;
+            }
+        }
     }
     
     /**
@@ -347,21 +459,13 @@ public class ShadowDonkeyKong extends AbstractGame {
      * @param message The win/lose message to display
      * @return The final score to display
      */
-    private int prepareGameEndScreen(String message) {
-        Font font = new Font(Config.getApp("font"), Config.getAppInt("gameEnd.status.fontSize"));
-        drawCenteredString(font, message, Config.getAppInt("gameEnd.status.y"));
-    
-        font = new Font(Config.getApp("font"), Config.getAppInt("gameEnd.scores.fontSize"));
+    private int prepareGameEndScreen(TextLine message) {
+        message.drawCentred(Window.getWidth(), settings.getStatusY());
         
-        int finalScore = 0;
-        if (currentState == GameState.WIN) {
-            int timeLeft = (maxFrames - currentFrame) / SECONDS_PER_MINUTE;
-            int timeBonus = timeLeft * 3;
-            finalScore = mario.getFinalScore() + timeBonus;
-        }
+        int finalScore = currentState == GameState.WIN ? world.getFinalScore() : 0;
         
-        drawCenteredString(font, String.format(FINAL_SCORE_FORMAT, finalScore),
-                Config.getAppInt("gameEnd.status.y") + GAME_OVER_SCORE_OFFSET_Y);
+        finalScoreText.setValue(finalScore);
+        finalScoreText.drawCentred(Window.getWidth(), settings.getStatusY() + GAME_OVER_SCORE_OFFSET_Y);
         
         return finalScore;
     }
@@ -370,10 +474,9 @@ public class ShadowDonkeyKong extends AbstractGame {
      * Updates and renders the game over screen
      */
     private void updateGameOverScreen(Input input) {
-        prepareGameEndScreen(GAME_OVER_MESSAGE);
+        prepareGameEndScreen(gameOverText);
         
-        Font font = new Font(Config.getApp("font"), Config.getAppInt("gameEnd.scores.fontSize"));
-        drawCenteredString(font, CONTINUE_PROMPT, Window.getHeight() - CONTINUE_PROMPT_OFFSET_Y);
+        continueText.drawCentred(Window.getWidth(), Window.getHeight() - CONTINUE_PROMPT_OFFSET_Y);
         
         if (input.wasPressed(Keys.SPACE)) {
             restartGame();
@@ -384,22 +487,23 @@ public class ShadowDonkeyKong extends AbstractGame {
      * Updates and renders the win screen
      */
     private void updateWinScreen(Input input) {
-        int finalScore = prepareGameEndScreen(WIN_MESSAGE);
+        int finalScore = prepareGameEndScreen(winText);
         
-        // For Level 1, automatically start Level 2
-        if (currentLevel == 1) {
+        // Move straight on to the next level, which was built while this one was played
+        LevelSequence sequence = settings.getLevelSequence();
+        if (sequence.hasNext(currentLevel)) {
             totalScore = finalScore;
-            currentLevel = 2;
-            initializeGame();
+            GameWorld next = takeNextLevel(sequence.next(currentLevel));
+            next.carryOverScore(totalScore);
+            startLevel(next);
             currentState = GameState.PLAYING;
         } else {
-            // For Level 2, show prompt and wait for SPACE key
-            Font font = new Font(Config.getApp("font"), Config.getAppInt("gameEnd.scores.fontSize"));
-            drawCenteredString(font, CONTINUE_PROMPT, Window.getHeight() - CONTINUE_PROMPT_OFFSET_Y);
+            // After the last level, show prompt and wait for SPACE key
+            continueText.drawCentred(Window.getWidth(), Window.getHeight() - CONTINUE_PROMPT_OFFSET_Y);
             
             if (input.wasPressed(Keys.SPACE)) {
                 totalScore = finalScore;
-                currentLevel = 1;
+                currentLevel = sequence.first();
                 initializeGame();
                 currentState = GameState.TITLE;
             }
@@ -407,249 +511,91 @@ public class ShadowDonkeyKong extends AbstractGame {
     }    
     
     /**
-     * Helper method to check if a bullet hits a game entity and award points if needed
-     * 
-     * @param bullet The bullet to check
-     * @param entity The entity to check for collision
-     * @param tolerance The collision tolerance
-     * @return true if the bullet hit and should be removed
-     */
-    private boolean checkBulletHit(Bullet bullet, GameObject entity, double tolerance) {
-        if (entity.intersects(bullet, tolerance, tolerance)) {
-            if (entity instanceof NormalMonkey) {
-                ((NormalMonkey) entity).destroy();
-                mario.addToScore(100);
-                return true;
-            } else if (entity instanceof IntelligentMonkey) {
-                ((IntelligentMonkey) entity).destroy();
-                mario.addToScore(100);
-                return true;
-            } else if (entity instanceof DonkeyKong) {
-                ((DonkeyKong) entity).reduceHealth();
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    /**
-     * Updates and renders the main gameplay
+     * Runs as many fixed simulation ticks as real time calls for and renders
+     * the gameplay interpolated between the last two ticks. Key presses are
+     * held until the next tick so none are lost on frames that run no tick.
      */
     private void updateGamePlay(Input input) {
-        currentFrame++;
-        
-        if (currentFrame >= maxFrames) {
-            currentState = GameState.GAME_OVER;
-            return;
-        }
-
-        barrels.forEach(Barrel::resetFrameFlags);
+        int ticks = timestep.advance(System.nanoTime());
 
-        mario.checkLadderCollisions(ladders, input);
+        if (input.wasPressed(Keys.F3) && profiler.isEnabled()) {
+            profilerOverlay.toggle();
+        }
 
-        double oldBottomY = mario.getBottomY();
+        if (input.isDown(Keys.R)) {
+            rewindGamePlay(ticks);
+            if (metrics != null) {
+                metrics.rewound(world);
+            }
+            renderGamePlay();
+            return;
+        }
 
-        mario.update(input);
+        int held = readHeldActions(input);
+        pendingPresses |= readPressedActions(input);
 
-        mario.awardJumpPoints(barrels, oldBottomY);
+        if (metrics != null) {
+            metrics.beginTicks();
+        }
 
-        mario.checkBarrelCollisions(barrels);
+        int ticksRun = 0;
+        for (; ticksRun < ticks && world.getStatus() == GameWorld.Status.PLAYING; ticksRun++) {
+            GameInput tickInput = GameInput.of(held | pendingPresses);
+            rewindBuffer.record(world, tickInput);
+            world.tick(tickInput);
+            pendingPresses = 0;
 
-        if (!mario.isClimbing()) {
-            mario.checkPlatformCollision(platforms);
-        }
-        
-        if (currentLevel == 2) {
-            for (Blaster blaster : blasters) {
-                blaster.update(mario);
-            }
-        
-            if (input.wasPressed(Keys.S)) {
-                Bullet bullet = mario.tryShoot();
-                if (bullet != null) {
-                    bullets.add(bullet);
-                }
-            }
-            
-            // Update bullet positions and remove bullets that should despawn
-            for (Bullet b : new ArrayList<>(bullets)) {
-                if (b.updateAndShouldDespawn()) {
-                    bullets.remove(b);
-                    continue;
-                }
-                
-                // Check for bullet hits on monkeys
-                boolean bulletHit = false;
-                
-                // Check normal monkeys
-                for (NormalMonkey m : normalMonkeys) {
-                    if (!m.isDestroyed() && checkBulletHit(b, m, 5.0)) {
-                        bullets.remove(b);
-                        bulletHit = true;
-                        break;
-                    }
-                }
-                
-                if (bulletHit) continue;
-                
-                // Check intelligent monkeys
-                for (IntelligentMonkey m : intelligentMonkeys) {
-                    if (!m.isDestroyed() && checkBulletHit(b, m, 5.0)) {
-                        bullets.remove(b);
-                        bulletHit = true;
-                        break;
-                    }
-                }
-                
-                if (bulletHit) continue;
-                
-                // Check if bullet hit Donkey Kong
-                if (!donkey.isDead() && checkBulletHit(b, donkey, 5.0)) {
-                    bullets.remove(b);
-                    
-                    if (donkey.isDead()) {
-                        currentState = GameState.WIN;
-                    }
-                }
+            if (recorder != null) {
+                recorder.record(tickInput);
             }
-            
-            // Update normal monkeys
-            for (NormalMonkey m : normalMonkeys) {
-                m.update();
-            
-                // Handle collision with Mario
-                if (!m.isDestroyed() && m.intersectsMario(mario)) {
-                    if (mario.hasHammer()) {
-                        // Destroy monkey with hammer
-                        m.destroy();
-                        mario.addToScore(100);
-                    } else {
-                        // Kill Mario if not holding hammer
-                        currentState = GameState.GAME_OVER;
-                    }
-                }
-            } 
+        }
 
-            // Update intelligent monkeys
-            for (IntelligentMonkey monkey : intelligentMonkeys) {
-                monkey.update();
-            
-                if (!monkey.isDestroyed() && monkey.shouldFireBanana()) {
-                    Point spawn = monkey.getBananaSpawnPoint();
-                    bananas.add(new Banana(spawn.x, spawn.y, monkey.isFacingRight()));
-                }
-            
-                // Mario collision
-                if (!monkey.isDestroyed() && monkey.intersectsMario(mario)) {
-                    if (mario.hasHammer()) {
-                        // Destroy monkey with hammer
-                        monkey.destroy();
-                        mario.addToScore(100);
-                    } else {
-                        // Kill Mario if not holding hammer
-                        currentState = GameState.GAME_OVER;
-                    }
-                }
-            }
-            
-            // Update bananas
-            for (Banana banana : new ArrayList<>(bananas)) {
-                if (banana.intersects(mario, 5.0, 5.0)) {
-                    currentState = GameState.GAME_OVER;
-                }
-            
-                if (banana.updateAndShouldDespawn()) {
-                    bananas.remove(banana);
-                }
-            }           
-        }        
+        if (metrics != null) {
+            metrics.endTicks(world, ticksRun, timestep.getDroppedTicks());
+        }
 
-        if (mario.intersects(donkey) && mario.hasHammer()) {
-            currentState = GameState.WIN;
-            return;
+        if (recorder != null && world.getStatus() != GameWorld.Status.PLAYING) {
+            saveReplay();
         }
-        
-        hammer.update(mario);
-        updateBarrels();
 
-        if (mario.intersects(donkey) && !mario.hasHammer()) {
+        if (world.getStatus() == GameWorld.Status.LOST) {
             currentState = GameState.GAME_OVER;
+        } else if (world.getStatus() == GameWorld.Status.WON) {
+            currentState = GameState.WIN;
         }
-        
-        renderGameEntities();
-        renderHUD();
+
+        renderGamePlay();
     }
-    
+
     /**
-     * Updates all barrels and checks for collisions
+     * Renders the world interpolated between the last two ticks, the HUD
+     * and, when shown, the frame timings and draw statistics
      */
-    private void updateBarrels() {
-        for (Barrel barrel : barrels) {
-            if (!barrel.isDestroyed()) {
-                barrel.update();
-                barrel.trySnapToPlatform(platforms);
-                
-                if (mario.intersects(barrel) && !mario.hasHammer()) {
-                    currentState = GameState.GAME_OVER;
-                }
-            }
-        }
+    private void renderGamePlay() {
+        long start = profiler.start();
+        worldRenderer.render(world, timestep.getAlpha());
+        profiler.stop(Phase.RENDER_WORLD, start);
+
+        start = profiler.start();
+        hudRenderer.render(world);
+        profiler.stop(Phase.RENDER_HUD, start);
+
+        profilerOverlay.render(worldRenderer.getBatch());
     }
-    
+
     /**
-     * Renders all game entities
+     * Steps the world back by the elapsed ticks times the rewind speed, as far
+     * as the rewind history reaches. Releasing the key resumes play from there.
      */
-    private void renderGameEntities() {
-        // Always render these entities
-        platforms.forEach(Platform::render);
-        ladders.forEach(Ladder::render);
-        hammer.render();
-        barrels.forEach(Barrel::render);
-        donkey.render();
-
-        // Render level 2 specific entities
-        if (currentLevel == 2) {
-            blasters.forEach(Blaster::render);
-            bullets.forEach(Bullet::render);
-            normalMonkeys.forEach(NormalMonkey::render);
-            intelligentMonkeys.forEach(IntelligentMonkey::render);
-            bananas.forEach(Banana::render);
-        }
-
-        // Always render Mario last (so he appears on top)
-        mario.render();
+    private void rewindGamePlay(int ticks) {
+        int frame = rewindBuffer.rewindTo(world, world.getCurrentFrame() - ticks * rewindSpeed);
+        pendingPresses = 0;
+
+        if (recorder != null) {
+            recorder.truncate(frame);
+        }
     }
 
-    /**
-     * Renders the heads-up display with score and time
-     */
-    private void renderHUD() {
-        int fontSize = Config.getAppInt("gamePlay.score.fontSize");
-        int x = Config.getAppInt("gamePlay.score.x");
-        int y = Config.getAppInt("gamePlay.score.y");
-    
-        Font font = new Font(Config.getApp("font"), fontSize);
-    
-        int score = mario.getFinalScore();
-        int timeLeft = (maxFrames - currentFrame) / SECONDS_PER_MINUTE;
-    
-        font.drawString(String.format(SCORE_FORMAT, score), x, y);
-        font.drawString(String.format(TIME_LEFT_FORMAT, timeLeft), x, y + SCORE_DISPLAY_OFFSET_Y);
-
-        if (currentLevel == 2) {
-            // Get coordinates for the Donkey health display
-            String[] coords = Config.getApp("gamePlay.donkeyhealth.coords").split(",");
-            int healthX = Integer.parseInt(coords[0].trim());
-            int healthY = Integer.parseInt(coords[1].trim());
-            
-            // Display Donkey health
-            font.drawString("Donkey Health " + donkey.getHealth(), healthX, healthY);
-            
-            // Display bullet count 30 pixels below health
-            font.drawString("Bullet " + mario.getBulletCount(), healthX, healthY + 30);
-        } 
-    }    
-    
     /**
      * Restarts the game after game over
      */
@@ -659,26 +605,31 @@ public class ShadowDonkeyKong extends AbstractGame {
         currentState = GameState.TITLE;
     }
     
-    /**
-     * Draws text centered horizontally at the given y position
-     */
-    private void drawCenteredText(String text, String fontSizeKey, int y) {
-        int fontSize = Config.getAppInt(fontSizeKey);
-        Font font = new Font(Config.getApp("font"), fontSize);
-        drawCenteredString(font, text, y);
+    private static void startFlightRecording(Path file) {
+        try {
+            FlightRecording.start(file);
+            LOGGER.info(() -> "Recording to " + file + " until exit");
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.log(Level.WARNING, "Failed to start the Flight Recorder recording " + file, e);
+        }
     }
-    
+
     /**
-     * Draws a string centered horizontally at the given y position
+     * Starts the game. {@code --record=FILE} also starts a Flight Recorder
+     * recording, written to FILE (default {@value #DEFAULT_RECORDING}) on exit.
      */
-    private void drawCenteredString(Font font, String text, int y) {
-        double x = (Window.getWidth() - font.getWidth(text)) / 2.0;
-        font.drawString(text, x, y);
-    }
-
     public static void main(String[] args) {
-        Properties gameProps = IOUtils.readPropertiesFile("res/app.properties");
-        Properties messageProps = IOUtils.readPropertiesFile("res/message.properties");
-        new ShadowDonkeyKong(gameProps, messageProps).run();
+        for (String arg : args) {
+            if (arg.equals(RECORD_FLAG) || arg.startsWith(RECORD_FLAG + "=")) {
+                String file = arg.length() > RECORD_FLAG.length()
+                        ? arg.substring(RECORD_FLAG.length() + 1)
+                        : DEFAULT_RECORDING;
+                startFlightRecording(Paths.get(file));
+            } else {
+                LOGGER.warning(() -> "Ignoring unknown argument " + arg);
+            }
+        }
+
+        new ShadowDonkeyKong().run();
     }
 } 
\ No newline at end of file
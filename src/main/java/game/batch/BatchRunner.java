@@ -0,0 +1,180 @@
+package game.batch;
+
+import game.core.Config;
+import game.core.ConfigSnapshot;
+import game.core.GameInput;
+import game.core.GameWorld;
+import game.level.LevelSource;
+import game.replay.Replay;
+import game.replay.ReplayRecorder;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Runs many independent headless game sessions in parallel and reports
+ * throughput. Every session owns its own {@link GameWorld} and reads from
+ * a single immutable {@link ConfigSnapshot}, so sessions share no mutable state
+ * and the runner scales with the number of cores.
+ *
+ * <p>Usage: {@code BatchRunner [--sessions=N] [--level=1|2] [--threads=N] [--seed=N] [--replays=DIR]}
+ * <p>With {@code --replays} every session's input is archived as a replay file.
+ */
+public final class BatchRunner {
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    // Default options
+    private static final int DEFAULT_SESSIONS = 1000;
+    private static final int DEFAULT_LEVEL = 1;
+    private static final long DEFAULT_SEED = 1;
+
+    private final LevelSource levels;
+    private final int level;
+    private final long seed;
+    private Path replayDirectory;
+
+    // Aggregated results
+    private final LongAdder ticks = new LongAdder();
+    private final LongAdder won = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+
+    /**
+     * Creates a runner for sessions of one level
+     *
+     * @param levels The configuration and layouts every session is built from
+     * @param level The level each session plays
+     * @param seed Base seed; session {@code i} is played by a bot seeded with {@code seed + i}
+     */
+    public BatchRunner(LevelSource levels, int level, long seed) {
+        this.levels = levels;
+        this.level = level;
+        this.seed = seed;
+    }
+
+    /**
+     * Archives every session's input as a replay file in the given directory
+     */
+    public void setReplayDirectory(Path replayDirectory) throws IOException {
+        Files.createDirectories(replayDirectory);
+        this.replayDirectory = replayDirectory;
+    }
+
+    /**
+     * Plays a single session to completion
+     */
+    private void runSession(int index) {
+        GameWorld world = new GameWorld(levels.getConfig(), levels.get(level), 0);
+        RandomBot bot = new RandomBot(seed + index);
+        ReplayRecorder recorder = replayDirectory != null ? new ReplayRecorder(level, 0) : null;
+        int sessionTicks = 0;
+
+        while (world.getStatus() == GameWorld.Status.PLAYING) {
+            GameInput input = bot.next();
+            world.tick(input);
+            sessionTicks++;
+
+            if (recorder != null) {
+                recorder.record(input);
+            }
+        }
+
+        if (recorder != null) {
+            saveReplay(recorder.finish(world), seed + index);
+        }
+
+        ticks.add(sessionTicks);
+        if (world.getStatus() == GameWorld.Status.WON) {
+            won.increment();
+        } else {
+            lost.increment();
+        }
+    }
+
+    private void saveReplay(Replay replay, long sessionSeed) {
+        Path file = replayDirectory.resolve("level" + level + "-seed" + sessionSeed + Replay.FILE_EXTENSION);
+        try {
+            replay.write(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save replay " + file, e);
+        }
+    }
+
+    /**
+     * Runs the given number of sessions on a pool of the given size
+     *
+     * @return Wall-clock time taken in nanoseconds
+     */
+    public long run(int sessions, int threads) throws InterruptedException, ExecutionException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            pool.submit(() -> IntStream.range(0, sessions).parallel().forEach(this::runSession)).get();
+            return System.nanoTime() - start;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public long getTicks() {
+        return ticks.sum();
+    }
+
+    public long getWon() {
+        return won.sum();
+    }
+
+    public long getLost() {
+        return lost.sum();
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException, IOException {
+        int sessions = DEFAULT_SESSIONS;
+        int level = DEFAULT_LEVEL;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = DEFAULT_SEED;
+        Path replays = null;
+
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected --option=value but got: " + arg);
+            }
+            switch (parts[0]) {
+                case "--sessions":
+                    sessions = Integer.parseInt(parts[1]);
+                    break;
+                case "--level":
+                    level = Integer.parseInt(parts[1]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(parts[1]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(parts[1]);
+                    break;
+                case "--replays":
+                    replays = Paths.get(parts[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + parts[0]);
+            }
+        }
+
+        BatchRunner runner = new BatchRunner(LevelSource.of(Config.snapshot()), level, seed);
+        if (replays != null) {
+            runner.setReplayDirectory(replays);
+        }
+        long elapsed = runner.run(sessions, threads);
+        double seconds = elapsed / NANOS_PER_SECOND;
+
+        System.out.printf("Ran %d level-%d sessions on %d threads in %.3f s%n", sessions, level, threads, seconds);
+        System.out.printf("%.0f sessions/s, %.0f ticks/s (%d ticks, %d won, %d lost)%n",
+                sessions / seconds, runner.getTicks() / seconds, runner.getTicks(), runner.getWon(), runner.getLost());
+    }
+}
@@ -0,0 +1,58 @@
+package game.batch;
+
+import game.core.Action;
+import game.core.GameInput;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic random player used to drive headless sessions.
+ * Holds a movement direction for a random number of ticks and
+ * occasionally jumps or shoots; the same seed always plays the same run.
+ */
+public class RandomBot {
+    private static final int MIN_HOLD_TICKS = 5;
+    private static final int MAX_EXTRA_HOLD_TICKS = 60;
+    private static final int JUMP_CHANCE = 25;
+    private static final int SHOOT_CHANCE = 20;
+
+    // Movement choices, including standing still
+    private static final int[] MOVES = {
+        Action.LEFT.mask(),
+        Action.RIGHT.mask(),
+        Action.UP.mask(),
+        Action.DOWN.mask(),
+        Action.LEFT.mask() | Action.UP.mask(),
+        Action.RIGHT.mask() | Action.UP.mask(),
+        0
+    };
+
+    private final SplittableRandom random;
+    private int held = 0;
+    private int holdTicks = 0;
+
+    /**
+     * Creates a bot that plays the run identified by the given seed
+     */
+    public RandomBot(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Chooses the input for the next tick
+     */
+    public GameInput next() {
+        if (holdTicks-- <= 0) {
+            holdTicks = MIN_HOLD_TICKS + random.nextInt(MAX_EXTRA_HOLD_TICKS);
+            held = MOVES[random.nextInt(MOVES.length)];
+        }
+
+        int bits = held;
+        if (random.nextInt(JUMP_CHANCE) == 0) {
+            bits |= Action.JUMP.mask();
+        }
+        if (random.nextInt(SHOOT_CHANCE) == 0) {
+            bits |= Action.SHOOT.mask();
+        }
+        return GameInput.of(bits);
+    }
+}
@@ -0,0 +1,17 @@
+package game.core;
+
+/**
+ * The player actions the simulation understands.
+ * LEFT, RIGHT, UP and DOWN are held states; JUMP and SHOOT are
+ * edge-triggered and only set on the tick the key was pressed.
+ */
+public enum Action {
+    LEFT, RIGHT, UP, DOWN, JUMP, SHOOT;
+
+    /**
+     * Gets the bit used for this action in {@link GameInput#getBits()}
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+}
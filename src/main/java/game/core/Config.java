@@ -2,12 +2,17 @@ package game.core;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Central configuration manager for the game.
+ * Holds the current {@link ConfigSnapshot}; the static getters read from it,
+ * and sessions that must not see reloads keep their own snapshot instead.
+ * A {@link ConfigWatcher} can re-read the files in the background when they
+ * change; the game then publishes the new snapshot between ticks.
  */
 public final class Config {
     private static final Logger LOGGER = Logger.getLogger(Config.class.getName());
@@ -16,19 +21,8 @@ public final class Config {
     private static final String APP_PROPERTIES_PATH = "res/app.properties";
     private static final String MESSAGE_PROPERTIES_PATH = "res/message.properties";
     
-    // Default values
-    private static final int DEFAULT_INT_VALUE = 0;
-    private static final double DEFAULT_DOUBLE_VALUE = 0.0;
-    private static final String DEFAULT_STRING_VALUE = "";
-    private static final boolean DEFAULT_BOOLEAN_VALUE = false;
-    
-    // Boolean string representations
-    private static final String[] TRUE_STRINGS = {"true", "1", "yes", "y"};
-    private static final String[] FALSE_STRINGS = {"false", "0", "no", "n"};
-    
-    // Properties objects to hold application and message configurations
-    private static final Properties appProps = new Properties();
-    private static final Properties msgProps = new Properties();
+    // Latest loaded configuration
+    private static volatile ConfigSnapshot current;
     
     // Prevent instantiation
     private Config() {
@@ -40,23 +34,59 @@ public final class Config {
     }
 
     private static void loadProperties() {
+        try {
+            current = read();
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.SEVERE, "Failed to load configuration", e);
+            throw new RuntimeException("Failed to initialize configuration", e);
+        }
+    }
+
+    /**
+     * Reads both properties files into a new snapshot without publishing it
+     *
+     * @throws IOException If a file can't be read
+     * @throws IllegalArgumentException If a setting is missing or invalid
+     */
+    static ConfigSnapshot read() throws IOException {
+        Properties appProps = new Properties();
+        Properties msgProps = new Properties();
+
         // Load application properties
         try (FileInputStream appIn = new FileInputStream(APP_PROPERTIES_PATH)) {
             appProps.load(appIn);
             LOGGER.info("Successfully loaded application properties");
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Failed to load application properties file", e);
-            throw new RuntimeException("Failed to initialize application configuration", e);
         }
-        
+
         // Load message properties
         try (FileInputStream msgIn = new FileInputStream(MESSAGE_PROPERTIES_PATH)) {
             msgProps.load(msgIn);
             LOGGER.info("Successfully loaded message properties");
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "Failed to load message properties file", e);
-            throw new RuntimeException("Failed to initialize message configuration", e);
         }
+
+        return new ConfigSnapshot(appProps, msgProps);
+    }
+
+    /**
+     * Makes a snapshot the current configuration. Readers switch to it in
+     * one step; sessions holding the previous snapshot keep it.
+     */
+    public static void publish(ConfigSnapshot snapshot) {
+        current = snapshot;
+    }
+
+    /**
+     * Gets the current configuration as an immutable snapshot
+     */
+    public static ConfigSnapshot snapshot() {
+        return current;
+    }
+
+    /**
+     * Gets the typed settings of the current configuration
+     */
+    public static GameSettings settings() {
+        return current.getSettings();
     }
 
     /**
@@ -66,12 +96,7 @@ public final class Config {
      * @return The property value, or empty string if not found
      */
     public static String getApp(String key) {
-        String value = appProps.getProperty(key);
-        if (value == null) {
-            LOGGER.warning(() -> String.format("Missing key in app.properties: %s", key));
-            return DEFAULT_STRING_VALUE;
-        }
-        return value;
+        return current.getApp(key);
     }
 
     /**
@@ -81,52 +106,21 @@ public final class Config {
      * @return The property value as integer, or 0 if not found or invalid
      */
     public static int getAppInt(String key) {
-        try {
-            return Integer.parseInt(getApp(key));
-        } catch (NumberFormatException e) {
-            LOGGER.warning(() -> String.format("Value for '%s' is not a valid integer: %s", key, getApp(key)));
-            return DEFAULT_INT_VALUE;
-        }
+        return current.getAppInt(key);
     }
 
     /**
      * Retrieves a double property value from app.properties.
      */
     public static double getAppDouble(String key) {
-        try {
-            return Double.parseDouble(getApp(key));
-        } catch (NumberFormatException e) {
-            LOGGER.warning(() -> String.format("Value for '%s' is not a valid double: %s", key, getApp(key)));
-            return DEFAULT_DOUBLE_VALUE;
-        }
+        return current.getAppDouble(key);
     }
 
     /**
      * Retrieves a boolean property value from app.properties.
      */
     public static boolean getAppBoolean(String key) {
-        String value = getApp(key).toLowerCase();
-        
-        // Check for true values
-        for (String trueStr : TRUE_STRINGS) {
-            if (value.equals(trueStr)) {
-                return true;
-            }
-        }
-        
-        // Check for false values
-        for (String falseStr : FALSE_STRINGS) {
-            if (value.equals(falseStr)) {
-                return false;
-            }
-        }
-        
-        // Log warning for values that don't match any pattern
-        if (!value.isEmpty()) {
-            LOGGER.warning(() -> String.format("Value for '%s' is not a valid boolean: %s", key, value));
-        }
-        
-        return DEFAULT_BOOLEAN_VALUE;
+        return current.getAppBoolean(key);
     }
 
     /**
@@ -136,26 +130,31 @@ public final class Config {
      * @return The message value, or empty string if not found
      */
     public static String getMsg(String key) {
-        String value = msgProps.getProperty(key);
-        if (value == null) {
-            LOGGER.warning(() -> String.format("Missing key in message.properties: %s", key));
-            return DEFAULT_STRING_VALUE;
-        }
-        return value;
+        return current.getMsg(key);
     }
 
     /**
-     * Reloads all properties from files.
+     * Reloads all properties from files. Readers switch to the new values
+     * in one step; existing snapshots are unaffected.
      */
     public static void reload() {
         loadProperties();
         LOGGER.info("Configuration reloaded");
     }
+
+    /**
+     * Starts watching both properties files for changes
+     *
+     * @throws IOException If the directory can't be watched
+     */
+    public static ConfigWatcher watch() throws IOException {
+        return new ConfigWatcher(Paths.get(APP_PROPERTIES_PATH), Paths.get(MESSAGE_PROPERTIES_PATH));
+    }
     
     /**
      * Gets the total number of properties loaded
      */
     public static int getPropertyCount() {
-        return appProps.size() + msgProps.size();
+        return current.getPropertyCount();
     }
 }
@@ -0,0 +1,208 @@
+package game.core;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Immutable copy of the application and message properties.
+ * Each game session reads its settings from its own snapshot, so sessions
+ * running side by side never observe each other's reloads.
+ * The scalar settings are also compiled into {@link GameSettings} when the
+ * snapshot is created, so an invalid configuration is rejected right away.
+ */
+public final class ConfigSnapshot {
+    private static final Logger LOGGER = Logger.getLogger(ConfigSnapshot.class.getName());
+
+    // Default values
+    private static final int DEFAULT_INT_VALUE = 0;
+    private static final double DEFAULT_DOUBLE_VALUE = 0.0;
+    private static final String DEFAULT_STRING_VALUE = "";
+    private static final boolean DEFAULT_BOOLEAN_VALUE = false;
+
+    // Settings a level is built or simulated with, besides its layout keys
+    private static final String[] SIMULATION_KEYS = {
+        "window.width", "window.height", "backgroundImage", "gamePlay.maxFrames", "gamePlay.tickRate",
+        "physics.cellSize", "projectile.poolCapacity", "levels.compiled", "levels.file"
+    };
+
+    // Boolean string representations
+    private static final String[] TRUE_STRINGS = {"true", "1", "yes", "y"};
+    private static final String[] FALSE_STRINGS = {"false", "0", "no", "n"};
+
+    private final Properties appProps;
+    private final Properties msgProps;
+    private final GameSettings settings;
+
+    /**
+     * Creates a snapshot from copies of the given properties
+     *
+     * @param appProps Application properties
+     * @param msgProps Message properties
+     * @throws IllegalArgumentException If a setting is missing or invalid
+     */
+    public ConfigSnapshot(Properties appProps, Properties msgProps) {
+        this.appProps = copyOf(appProps);
+        this.msgProps = copyOf(msgProps);
+        this.settings = new GameSettings(this);
+    }
+
+    /**
+     * Gets the typed settings compiled from this snapshot
+     */
+    public GameSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Checks whether app.properties defines a key, without warning if it doesn't
+     */
+    public boolean hasApp(String key) {
+        return appProps.getProperty(key) != null;
+    }
+
+    // The raw value of a key, or null without a warning if it is missing
+    String findApp(String key) {
+        return appProps.getProperty(key);
+    }
+
+    private static Properties copyOf(Properties source) {
+        Properties copy = new Properties();
+        copy.putAll(source);
+        return copy;
+    }
+
+    /**
+     * Retrieves a string property value from app.properties.
+     *
+     * @param key The property key
+     * @return The property value, or empty string if not found
+     */
+    public String getApp(String key) {
+        String value = appProps.getProperty(key);
+        if (value == null) {
+            LOGGER.warning(() -> String.format("Missing key in app.properties: %s", key));
+            return DEFAULT_STRING_VALUE;
+        }
+        return value;
+    }
+
+    /**
+     * Retrieves an integer property value from app.properties.
+     *
+     * @param key The property key
+     * @return The property value as integer, or 0 if not found or invalid
+     */
+    public int getAppInt(String key) {
+        try {
+            return Integer.parseInt(getApp(key));
+        } catch (NumberFormatException e) {
+            LOGGER.warning(() -> String.format("Value for '%s' is not a valid integer: %s", key, getApp(key)));
+            return DEFAULT_INT_VALUE;
+        }
+    }
+
+    /**
+     * Retrieves a double property value from app.properties.
+     */
+    public double getAppDouble(String key) {
+        try {
+            return Double.parseDouble(getApp(key));
+        } catch (NumberFormatException e) {
+            LOGGER.warning(() -> String.format("Value for '%s' is not a valid double: %s", key, getApp(key)));
+            return DEFAULT_DOUBLE_VALUE;
+        }
+    }
+
+    /**
+     * Retrieves a boolean property value from app.properties.
+     */
+    public boolean getAppBoolean(String key) {
+        String value = getApp(key);
+        Boolean parsed = parseBoolean(value);
+        if (parsed != null) {
+            return parsed;
+        }
+
+        // Log warning for values that don't match any pattern
+        if (!value.isEmpty()) {
+            LOGGER.warning(() -> String.format("Value for '%s' is not a valid boolean: %s", key, value));
+        }
+
+        return DEFAULT_BOOLEAN_VALUE;
+    }
+
+    // Parses one of the accepted spellings, or returns null for anything else
+    static Boolean parseBoolean(String value) {
+        String lower = value.toLowerCase();
+
+        // Check for true values
+        for (String trueStr : TRUE_STRINGS) {
+            if (lower.equals(trueStr)) {
+                return true;
+            }
+        }
+
+        // Check for false values
+        for (String falseStr : FALSE_STRINGS) {
+            if (lower.equals(falseStr)) {
+                return false;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Retrieves a message from message.properties.
+     *
+     * @param key The message key
+     * @return The message value, or empty string if not found
+     */
+    public String getMsg(String key) {
+        String value = msgProps.getProperty(key);
+        if (value == null) {
+            LOGGER.warning(() -> String.format("Missing key in message.properties: %s", key));
+            return DEFAULT_STRING_VALUE;
+        }
+        return value;
+    }
+
+    /**
+     * Gets the total number of properties in this snapshot
+     */
+    public int getPropertyCount() {
+        return appProps.size() + msgProps.size();
+    }
+
+    /**
+     * Checks whether a level is built and simulated the same under another
+     * configuration: the same layout keys and the same simulation settings.
+     * Messages and presentation settings such as HUD positions and font
+     * sizes may differ.
+     *
+     * @param other The configuration to compare with
+     * @param level The level number whose layout is compared
+     */
+    public boolean isSameSimulation(ConfigSnapshot other, int level) {
+        for (String key : SIMULATION_KEYS) {
+            if (!Objects.equals(appProps.getProperty(key), other.appProps.getProperty(key))) {
+                return false;
+            }
+        }
+
+        // Layout keys are "<entity>.level<n>" or "<entity>.level<n>.<suffix>"
+        String levelKey = ".level" + level;
+        Set<String> keys = new HashSet<>(appProps.stringPropertyNames());
+        keys.addAll(other.appProps.stringPropertyNames());
+        for (String key : keys) {
+            if ((key.endsWith(levelKey) || key.contains(levelKey + "."))
+                    && !Objects.equals(appProps.getProperty(key), other.appProps.getProperty(key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,152 @@
+package game.core;
+
+import game.level.LevelData;
+import game.level.LevelSequence;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches the properties files and re-reads them on a background thread
+ * whenever one changes. A change that fails to parse or validate, settings
+ * or the layout of a level in the sequence, is logged and ignored, so a
+ * half-saved file never reaches the game. The game thread
+ * collects the newest good snapshot with {@link #poll()} at a point of its
+ * choosing, so it never waits on the disk and never sees a partial reload.
+ */
+public final class ConfigWatcher implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ConfigWatcher.class.getName());
+
+    // Editors often save in several writes; wait for them to settle before reading
+    private static final long SETTLE_MILLIS = 100;
+
+    private final WatchService watchService;
+    private final Set<Path> fileNames = new HashSet<>();
+    private final AtomicReference<ConfigSnapshot> pending = new AtomicReference<>();
+    private final Thread thread;
+
+    /**
+     * Starts watching the given files
+     *
+     * @throws IOException If a file's directory can't be watched
+     */
+    ConfigWatcher(Path... files) throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        Set<Path> directories = new HashSet<>();
+        for (Path file : files) {
+            Path absolute = file.toAbsolutePath().normalize();
+            fileNames.add(absolute.getFileName());
+            directories.add(absolute.getParent());
+        }
+        try {
+            for (Path directory : directories) {
+                directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                   StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+
+        this.thread = new Thread(this::run, "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Takes the newest snapshot read since the last call
+     *
+     * @return The snapshot, or null if nothing changed
+     */
+    public ConfigSnapshot poll() {
+        return pending.getAndSet(null);
+    }
+
+    /**
+     * Stops watching; the background thread exits
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to close the config watcher", e);
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (!drain(watchService.take())) {
+                    continue;
+                }
+
+                // Swallow the rest of the burst, then read the files once
+                Thread.sleep(SETTLE_MILLIS);
+                for (WatchKey key = watchService.poll(); key != null; key = watchService.poll()) {
+                    drain(key);
+                }
+                readChanges();
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Closed; stop watching
+        }
+    }
+
+    // Consumes a key's events and reports whether they touched a watched file
+    private boolean drain(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileNames.contains((Path) event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private void readChanges() {
+        try {
+            ConfigSnapshot changed = Config.read();
+            checkLevels(changed);
+            pending.set(changed);
+            LOGGER.info("Configuration changed on disk; applying at the next tick");
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.log(Level.WARNING, "Ignoring configuration change, keeping the current settings", e);
+        }
+    }
+
+    /**
+     * Parses the layout of every level in the sequence, since the game
+     * restarts the level in progress as soon as the change is applied.
+     * With compiled levels on, a level not defined in the file is left to
+     * the compiled level file.
+     *
+     * @throws IllegalArgumentException If a layout is malformed
+     */
+    private static void checkLevels(ConfigSnapshot config) {
+        GameSettings settings = config.getSettings();
+        LevelSequence sequence = settings.getLevelSequence();
+        for (int i = 0; i < sequence.size(); i++) {
+            int level = sequence.get(i);
+            if (settings.isCompiledLevels() && !config.hasApp("mario.level" + level)) {
+                continue;
+            }
+            try {
+                LevelData.fromConfig(config, level);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid layout for level " + level + ": " + e, e);
+            }
+        }
+    }
+}
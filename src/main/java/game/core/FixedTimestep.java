@@ -0,0 +1,85 @@
+package game.core;
+
+/**
+ * Fixed-timestep accumulator for driving the simulation independently of the
+ * display refresh rate. Each rendered frame reports the current time; the
+ * accumulator says how many simulation ticks to run and how far the renderer
+ * is between the last two ticks.
+ */
+public class FixedTimestep {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long tickNanos;
+    private final int maxSubSteps;
+
+    private long lastTime = -1;
+    private long accumulator = 0;
+    private int droppedTicks = 0;
+
+    /**
+     * Creates a timestep for the given tick rate
+     *
+     * @param ticksPerSecond Simulation ticks per second
+     * @param maxSubSteps Most ticks to run for a single frame when catching up
+     */
+    public FixedTimestep(int ticksPerSecond, int maxSubSteps) {
+        if (ticksPerSecond <= 0 || maxSubSteps <= 0) {
+            throw new IllegalArgumentException("Tick rate and sub-steps must be positive");
+        }
+        this.tickNanos = NANOS_PER_SECOND / ticksPerSecond;
+        this.maxSubSteps = maxSubSteps;
+    }
+
+    /**
+     * Forgets accumulated time, e.g. when gameplay (re)starts after a menu
+     */
+    public void reset() {
+        lastTime = -1;
+        accumulator = 0;
+        droppedTicks = 0;
+    }
+
+    /**
+     * Adds the time elapsed since the previous call and consumes whole ticks.
+     * When more than {@code maxSubSteps} ticks are owed the backlog is dropped,
+     * so a long stall slows the game down instead of spiralling.
+     *
+     * @param nowNanos The current time from {@link System#nanoTime()}
+     * @return The number of simulation ticks to run this frame
+     */
+    public int advance(long nowNanos) {
+        droppedTicks = 0;
+        if (lastTime < 0) {
+            // First frame only establishes the clock and runs a single tick
+            lastTime = nowNanos;
+            return 1;
+        }
+
+        accumulator += nowNanos - lastTime;
+        lastTime = nowNanos;
+
+        int ticks = (int) Math.min(accumulator / tickNanos, maxSubSteps);
+        accumulator -= ticks * tickNanos;
+
+        if (ticks == maxSubSteps && accumulator >= tickNanos) {
+            droppedTicks = (int) Math.min(accumulator / tickNanos, Integer.MAX_VALUE);
+            accumulator %= tickNanos;
+        }
+        return ticks;
+    }
+
+    /**
+     * Gets how many owed ticks the last {@link #advance} dropped to catch up
+     */
+    public int getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    /**
+     * Gets how far the current frame lies between the previous and the latest
+     * tick, in the range [0, 1), for render interpolation
+     */
+    public double getAlpha() {
+        return (double) accumulator / tickNanos;
+    }
+}
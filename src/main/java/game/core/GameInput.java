@@ -0,0 +1,48 @@
+package game.core;
+
+/**
+ * Immutable snapshot of the player's input for a single simulation tick.
+ * All possible inputs are preallocated, so looking one up never allocates.
+ */
+public final class GameInput {
+    private static final GameInput[] ALL = new GameInput[1 << Action.values().length];
+
+    static {
+        for (int bits = 0; bits < ALL.length; bits++) {
+            ALL[bits] = new GameInput(bits);
+        }
+    }
+
+    /** Input with nothing held or pressed */
+    public static final GameInput NONE = ALL[0];
+
+    private final int bits;
+
+    private GameInput(int bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Gets the input for the given action bits
+     *
+     * @param bits Bitwise OR of {@link Action#mask()} values
+     * @return The shared input instance
+     */
+    public static GameInput of(int bits) {
+        return ALL[bits & (ALL.length - 1)];
+    }
+
+    /**
+     * Checks whether the given action is active this tick
+     */
+    public boolean has(Action action) {
+        return (bits & action.mask()) != 0;
+    }
+
+    /**
+     * Gets the raw action bits
+     */
+    public int getBits() {
+        return bits;
+    }
+}
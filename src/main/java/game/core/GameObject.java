@@ -1,102 +1,214 @@
 package game.core;
 
-import bagel.Image;
-import bagel.Input;
 import bagel.util.Point;
-import java.util.List;
+import java.nio.ByteBuffer;
 import game.entities.Platform;
+import game.physics.PlatformIndex;
 
 /**
  * Abstract base class for all game objects.
+ * Game objects only hold a {@link Sprite} description, never a loaded image,
+ * so they can be simulated without a window. Position and bounds are kept
+ * as primitives, with the half-extents cached whenever the sprite changes,
+ * so moving and colliding objects allocates nothing.
  */
 public abstract class GameObject {
-    protected Point position;
-    protected Image image;
+    // Centre of the object, now and before the current tick
+    private double x;
+    private double y;
+    private double previousX;
+    private double previousY;
+
+    private Sprite sprite;
+    private double halfWidth;
+    private double halfHeight;
 
     public GameObject(String imagePath, double x, double y) {
-        this.image = new Image(imagePath);
-        this.position = new Point(x, y);
+        setSprite(Sprite.of(imagePath));
+        this.x = x;
+        this.y = y;
+        this.previousX = x;
+        this.previousY = y;
     }
 
-    public void render() {
-        image.draw(position.x, position.y);
+    public void update(GameInput input) {
+        // Optional override in subclasses
     }
 
-    public void update(Input input) {
-        // Optional override in subclasses
+    /**
+     * Whether a renderer should draw this object. Subclasses hide
+     * themselves once destroyed or collected.
+     */
+    public boolean isVisible() {
+        return true;
     }
 
     public double getX() {
-        return position.x;
+        return x;
     }
 
     public double getY() {
-        return position.y;
+        return y;
     }
 
+    /**
+     * Gets the position as a new point
+     */
     public Point getPosition() {
-        return position;
+        return new Point(x, y);
+    }
+
+    /**
+     * Moves the object's centre
+     */
+    protected void moveTo(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    public double getHalfHeight() {
+        return halfHeight;
+    }
+
+    public double getLeft() {
+        return x - halfWidth;
+    }
+
+    public double getRight() {
+        return x + halfWidth;
+    }
+
+    public double getTop() {
+        return y - halfHeight;
+    }
+
+    public double getBottom() {
+        return y + halfHeight;
+    }
+
+    /**
+     * Remembers the current position as the state before the next tick,
+     * so the renderer can interpolate between the two
+     */
+    public void savePreviousPosition() {
+        previousX = x;
+        previousY = y;
+    }
+
+    /**
+     * Gets the x-coordinate blended between the previous and current tick
+     *
+     * @param alpha Fraction of a tick past the current state, in [0, 1]
+     */
+    public double getInterpolatedX(double alpha) {
+        return previousX + (x - previousX) * alpha;
+    }
+
+    /**
+     * Gets the y-coordinate blended between the previous and current tick
+     *
+     * @param alpha Fraction of a tick past the current state, in [0, 1]
+     */
+    public double getInterpolatedY(double alpha) {
+        return previousY + (y - previousY) * alpha;
+    }
+
+    /**
+     * Writes this object's mutable state for a world snapshot.
+     * Subclasses with more state extend this and {@link #readState}
+     * symmetrically, calling the superclass first.
+     */
+    public void writeState(ByteBuffer out) {
+        out.putDouble(x).putDouble(y);
+    }
+
+    /**
+     * Restores state written by {@link #writeState}. The restored position
+     * also becomes the previous position, so rendering doesn't blend across it.
+     */
+    public void readState(ByteBuffer in) {
+        x = in.getDouble();
+        y = in.getDouble();
+        previousX = x;
+        previousY = y;
+    }
+
+    public Sprite getSprite() {
+        return sprite;
     }
 
-    public Image getImage() {
-        return image;
+    /**
+     * Changes the sprite, and with it the object's size
+     */
+    protected void setSprite(Sprite sprite) {
+        this.sprite = sprite;
+        this.halfWidth = sprite.getWidth() / 2.0;
+        this.halfHeight = sprite.getHeight() / 2.0;
+    }
+
+    /**
+     * Gets the width of the object's sprite
+     */
+    public double getWidth() {
+        return sprite.getWidth();
+    }
+
+    /**
+     * Gets the height of the object's sprite
+     */
+    public double getHeight() {
+        return sprite.getHeight();
     }
     
     /**
      * Check if this object overlaps with another object horizontally
      */
     protected boolean isHorizontallyOverlapping(GameObject other) {
-        double[] thisBounds = getBoundsArray();
-        double[] otherBounds = other.getBoundsArray();
-        
-        double thisLeft = thisBounds[0];
-        double thisRight = thisBounds[2];
-        double otherLeft = otherBounds[0];
-        double otherRight = otherBounds[2];
-        
-        return thisRight > otherLeft && thisLeft < otherRight;
+        return getRight() > other.getLeft() && getLeft() < other.getRight();
     }
     
     /**
      * Check if this object is close to standing on top of another object
      */
     protected boolean isCloseToTopOf(GameObject other, double tolerance) {
-        double thisBottom = position.y + image.getHeight() / 2.0;
-        double otherTop = other.position.y - other.image.getHeight() / 2.0;
-        
-        return Math.abs(thisBottom - otherTop) < tolerance;
+        return Math.abs(getBottom() - other.getTop()) < tolerance;
+    }
+
+    /**
+     * Check if this object is horizontally over a platform and its bottom is
+     * within the tolerance of that platform's top
+     */
+    protected boolean isSupportedBy(PlatformIndex platforms, double tolerance) {
+        return findSupportingPlatform(platforms, tolerance) != null;
+    }
+
+    /**
+     * Finds the first platform, in level order, this object is resting on
+     * within the given tolerance
+     */
+    protected Platform findSupportingPlatform(PlatformIndex platforms, double tolerance) {
+        return platforms.findSupporting(getLeft(), getRight(), getBottom(), tolerance);
     }
     
     /**
      * Snap this object to stand on top of a platform
      */
-    public void snapToPlatform(List<Platform> platforms) {
-        double objectBottom = position.y + image.getHeight() / 2.0;
-    
-        Platform candidate = platforms.stream()
-            .filter(this::isHorizontallyOverlapping)
-            .filter(p -> {
-                double top = p.getY() - p.getImage().getHeight() / 2.0;
-                return top >= objectBottom;
-            })
-            .min((p1, p2) -> {
-                double top1 = p1.getY() - p1.getImage().getHeight() / 2.0;
-                double top2 = p2.getY() - p2.getImage().getHeight() / 2.0;
-                return Double.compare(top1, top2);
-            })
-            .orElse(null);
+    public void snapToPlatform(PlatformIndex platforms) {
+        double top = platforms.findTopBelow(getLeft(), getRight(), getBottom());
     
-        if (candidate != null) {
-            double top = candidate.getY() - candidate.getImage().getHeight() / 2.0;
-            position = new Point(position.x, top - image.getHeight() / 2.0);
+        if (!Double.isNaN(top)) {
+            y = top - halfHeight;
         } else {
             // No platform found below, check if standing on any platform
-            boolean standing = platforms.stream().anyMatch(p -> 
-                isHorizontallyOverlapping(p) && isCloseToTopOf(p, 5.0));
+            boolean standing = isSupportedBy(platforms, 5.0);
                 
             if (!standing) {
                 // Hook method for subclasses to handle no platform situation
-                handleNoPlatformBelow(platforms);
+                handleNoPlatformBelow();
             }
         }
     }
@@ -105,7 +217,7 @@ public abstract class GameObject {
      * Hook method that subclasses can override to handle the case when
      * no platform is found below this object. Default implementation does nothing.
      */
-    protected void handleNoPlatformBelow(List<Platform> platforms) {
+    protected void handleNoPlatformBelow() {
         // Default implementation does nothing
     }
     
@@ -118,28 +230,30 @@ public abstract class GameObject {
      * @return true if the objects intersect
      */
     public boolean intersects(GameObject other, double xMargin, double yMargin) {
-        // Calculate object boundaries with margins
-        double thisHalfWidth = image.getWidth() / 2.0 - xMargin;
-        double thisHalfHeight = image.getHeight() / 2.0 - yMargin;
-        double otherHalfWidth = other.getImage().getWidth() / 2.0 - xMargin;
-        double otherHalfHeight = other.getImage().getHeight() / 2.0 - yMargin;
-        
-        return Math.abs(position.x - other.getX()) < (thisHalfWidth + otherHalfWidth)
-            && Math.abs(position.y - other.getY()) < (thisHalfHeight + otherHalfHeight);
+        return intersects(other.x, other.y, other.halfWidth, other.halfHeight, xMargin, yMargin);
     }
-    
+
     /**
-     * Gets bounds array in format [left, top, right, bottom]
+     * Fast AABB collision detection with margins against a box that isn't a GameObject
+     *
+     * @param otherX Centre x of the other box
+     * @param otherY Centre y of the other box
+     * @param otherHalfWidth Half the other box's width
+     * @param otherHalfHeight Half the other box's height
+     * @param xMargin Horizontal margin to reduce both boxes by (from each side)
+     * @param yMargin Vertical margin to reduce both boxes by (from each side)
+     * @return true if the boxes intersect
      */
-    public double[] getBoundsArray() {
-        double halfWidth = image.getWidth() / 2.0;
-        double halfHeight = image.getHeight() / 2.0;
-        return new double[] {
-            position.x - halfWidth,  // left
-            position.y - halfHeight, // top
-            position.x + halfWidth,  // right
-            position.y + halfHeight  // bottom
-        };
+    public boolean intersects(double otherX, double otherY, double otherHalfWidth, double otherHalfHeight,
+                              double xMargin, double yMargin) {
+        // Calculate object boundaries with margins
+        double thisHalfWidth = halfWidth - xMargin;
+        double thisHalfHeight = halfHeight - yMargin;
+        double marginedOtherHalfWidth = otherHalfWidth - xMargin;
+        double marginedOtherHalfHeight = otherHalfHeight - yMargin;
+        
+        return Math.abs(x - otherX) < (thisHalfWidth + marginedOtherHalfWidth)
+            && Math.abs(y - otherY) < (thisHalfHeight + marginedOtherHalfHeight);
     }
     
     /**
@@ -150,18 +264,15 @@ public abstract class GameObject {
      */
     public int getCollisionSide(GameObject other) {
         // Get object bounds
-        double[] bounds1 = getBoundsArray();
-        double[] bounds2 = other.getBoundsArray();
-        
-        double left1 = bounds1[0];
-        double top1 = bounds1[1];
-        double right1 = bounds1[2];
-        double bottom1 = bounds1[3];
+        double left1 = getLeft();
+        double top1 = getTop();
+        double right1 = getRight();
+        double bottom1 = getBottom();
         
-        double left2 = bounds2[0];
-        double top2 = bounds2[1];
-        double right2 = bounds2[2];
-        double bottom2 = bounds2[3];
+        double left2 = other.getLeft();
+        double top2 = other.getTop();
+        double right2 = other.getRight();
+        double bottom2 = other.getBottom();
         
         // Check if objects are actually intersecting
         if (right1 <= left2 || left1 >= right2 || bottom1 <= top2 || top1 >= bottom2) {
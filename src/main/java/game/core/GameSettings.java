@@ -0,0 +1,495 @@
+package game.core;
+
+import game.level.LevelSequence;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The scalar settings of app.properties, parsed and checked once when the
+ * configuration is loaded. Code that runs every tick or frame reads these
+ * fields instead of looking keys up and parsing strings. A missing or
+ * invalid key fails the load with every problem listed, rather than being
+ * logged later from inside the game loop and replaced by a default.
+ * <p>
+ * Level layouts stay in the {@link ConfigSnapshot}; they are read once per
+ * level load, not per frame.
+ */
+public final class GameSettings {
+    /**
+     * The only supported {@code gamePlay.tickRate}. Speeds, gravity and
+     * cooldowns are all tuned per tick at this rate, so any other rate would
+     * change how fast the game plays rather than how smoothly.
+     */
+    public static final int SIMULATION_TICK_RATE = 60;
+
+    // Window
+    private final int windowWidth;
+    private final int windowHeight;
+    private final String backgroundImage;
+    private final String font;
+
+    // Simulation
+    private final int tickRate;
+    private final int maxSubSteps;
+    private final int maxFrames;
+    private final double cellSize;
+    private final int projectilePoolCapacity;
+
+    // Screens and HUD
+    private final int titleFontSize;
+    private final int titleY;
+    private final int promptFontSize;
+    private final int promptY;
+    private final int statusFontSize;
+    private final int statusY;
+    private final int scoresFontSize;
+    private final int scoreFontSize;
+    private final int scoreX;
+    private final int scoreY;
+    private final int donkeyHealthX;
+    private final int donkeyHealthY;
+
+    // Assets and rendering
+    private final String assetsDirectory;
+    private final boolean preloadAssets;
+    private final boolean atlasEnabled;
+    private final int atlasMaxSize;
+    private final int atlasMaxRegionSize;
+    private final int atlasPadding;
+    private final boolean cacheStaticLayer;
+
+    // Levels and reloading
+    private final LevelSequence levelSequence;
+    private final boolean compiledLevels;
+    private final String levelsFile;
+    private final boolean watchConfig;
+
+    // Profiling
+    private final boolean profilerEnabled;
+    private final String profilerReport;
+    private final int profilerOverlayFontSize;
+    private final int profilerOverlayX;
+    private final int profilerOverlayY;
+
+    // Live metrics
+    private final boolean metricsEnabled;
+    private final int metricsPort;
+
+    // Rewind and replays
+    private final int rewindSeconds;
+    private final int rewindKeyframeInterval;
+    private final int rewindKeyframeBytes;
+    private final int rewindSpeed;
+    private final boolean recordReplays;
+    private final String replayDirectory;
+
+    // Server
+    private final int serverPort;
+    private final int serverMaxSessions;
+    private final int serverMetricsIntervalSeconds;
+
+    /**
+     * Parses and validates the settings of a configuration
+     *
+     * @throws IllegalArgumentException Listing every missing or invalid key
+     */
+    GameSettings(ConfigSnapshot config) {
+        Parser parser = new Parser(config);
+
+        windowWidth = parser.positiveInt("window.width");
+        windowHeight = parser.positiveInt("window.height");
+        backgroundImage = parser.string("backgroundImage");
+        font = parser.string("font");
+
+        tickRate = parser.exactInt("gamePlay.tickRate", SIMULATION_TICK_RATE);
+        maxSubSteps = parser.positiveInt("gamePlay.maxSubSteps");
+        maxFrames = parser.positiveInt("gamePlay.maxFrames");
+        cellSize = parser.positiveDouble("physics.cellSize");
+        projectilePoolCapacity = parser.positiveInt("projectile.poolCapacity");
+
+        titleFontSize = parser.positiveInt("home.title.fontSize");
+        titleY = parser.anyInt("home.title.y");
+        promptFontSize = parser.positiveInt("home.prompt.fontSize");
+        promptY = parser.anyInt("home.prompt.y");
+        statusFontSize = parser.positiveInt("gameEnd.status.fontSize");
+        statusY = parser.anyInt("gameEnd.status.y");
+        scoresFontSize = parser.positiveInt("gameEnd.scores.fontSize");
+        scoreFontSize = parser.positiveInt("gamePlay.score.fontSize");
+        scoreX = parser.anyInt("gamePlay.score.x");
+        scoreY = parser.anyInt("gamePlay.score.y");
+        int[] healthCoords = parser.point("gamePlay.donkeyhealth.coords");
+        donkeyHealthX = healthCoords[0];
+        donkeyHealthY = healthCoords[1];
+
+        assetsDirectory = parser.string("assets.directory");
+        preloadAssets = parser.bool("assets.preload");
+        atlasEnabled = parser.bool("atlas.enabled");
+        atlasMaxSize = parser.positiveInt("atlas.maxSize");
+        atlasMaxRegionSize = parser.positiveInt("atlas.maxRegionSize");
+        atlasPadding = parser.nonNegativeInt("atlas.padding");
+        cacheStaticLayer = parser.bool("render.cacheStaticLayer");
+
+        levelSequence = parser.levelSequence("levels.sequence");
+        compiledLevels = parser.bool("levels.compiled");
+        levelsFile = parser.string("levels.file");
+        watchConfig = parser.bool("config.watch");
+
+        profilerEnabled = parser.bool("profiler.enabled");
+        profilerReport = parser.string("profiler.report");
+        profilerOverlayFontSize = parser.positiveInt("profiler.overlay.fontSize");
+        int[] overlayCoords = parser.point("profiler.overlay.coords");
+        profilerOverlayX = overlayCoords[0];
+        profilerOverlayY = overlayCoords[1];
+
+        metricsEnabled = parser.bool("metrics.enabled");
+        metricsPort = parser.nonNegativeInt("metrics.port");
+
+        rewindSeconds = parser.positiveInt("rewind.seconds");
+        rewindKeyframeInterval = parser.positiveInt("rewind.keyframeInterval");
+        rewindKeyframeBytes = parser.positiveInt("rewind.keyframeBytes");
+        rewindSpeed = parser.positiveInt("rewind.speed");
+        recordReplays = parser.bool("replay.record");
+        replayDirectory = parser.string("replay.directory");
+
+        serverPort = parser.nonNegativeInt("server.port");
+        serverMaxSessions = parser.positiveInt("server.maxSessions");
+        serverMetricsIntervalSeconds = parser.positiveInt("server.metricsIntervalSeconds");
+
+        parser.throwIfInvalid();
+    }
+
+    public int getWindowWidth() {
+        return windowWidth;
+    }
+
+    public int getWindowHeight() {
+        return windowHeight;
+    }
+
+    public String getBackgroundImage() {
+        return backgroundImage;
+    }
+
+    public String getFont() {
+        return font;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public int getMaxSubSteps() {
+        return maxSubSteps;
+    }
+
+    public int getMaxFrames() {
+        return maxFrames;
+    }
+
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    public int getProjectilePoolCapacity() {
+        return projectilePoolCapacity;
+    }
+
+    public int getTitleFontSize() {
+        return titleFontSize;
+    }
+
+    public int getTitleY() {
+        return titleY;
+    }
+
+    public int getPromptFontSize() {
+        return promptFontSize;
+    }
+
+    public int getPromptY() {
+        return promptY;
+    }
+
+    public int getStatusFontSize() {
+        return statusFontSize;
+    }
+
+    public int getStatusY() {
+        return statusY;
+    }
+
+    public int getScoresFontSize() {
+        return scoresFontSize;
+    }
+
+    public int getScoreFontSize() {
+        return scoreFontSize;
+    }
+
+    public int getScoreX() {
+        return scoreX;
+    }
+
+    public int getScoreY() {
+        return scoreY;
+    }
+
+    public int getDonkeyHealthX() {
+        return donkeyHealthX;
+    }
+
+    public int getDonkeyHealthY() {
+        return donkeyHealthY;
+    }
+
+    public String getAssetsDirectory() {
+        return assetsDirectory;
+    }
+
+    public boolean isPreloadAssets() {
+        return preloadAssets;
+    }
+
+    public boolean isAtlasEnabled() {
+        return atlasEnabled;
+    }
+
+    public int getAtlasMaxSize() {
+        return atlasMaxSize;
+    }
+
+    public int getAtlasMaxRegionSize() {
+        return atlasMaxRegionSize;
+    }
+
+    public int getAtlasPadding() {
+        return atlasPadding;
+    }
+
+    public boolean isCacheStaticLayer() {
+        return cacheStaticLayer;
+    }
+
+    public LevelSequence getLevelSequence() {
+        return levelSequence;
+    }
+
+    public boolean isCompiledLevels() {
+        return compiledLevels;
+    }
+
+    public String getLevelsFile() {
+        return levelsFile;
+    }
+
+    public boolean isWatchConfig() {
+        return watchConfig;
+    }
+
+    public boolean isProfilerEnabled() {
+        return profilerEnabled;
+    }
+
+    public String getProfilerReport() {
+        return profilerReport;
+    }
+
+    public int getProfilerOverlayFontSize() {
+        return profilerOverlayFontSize;
+    }
+
+    public int getProfilerOverlayX() {
+        return profilerOverlayX;
+    }
+
+    public int getProfilerOverlayY() {
+        return profilerOverlayY;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    public int getRewindSeconds() {
+        return rewindSeconds;
+    }
+
+    public int getRewindKeyframeInterval() {
+        return rewindKeyframeInterval;
+    }
+
+    public int getRewindKeyframeBytes() {
+        return rewindKeyframeBytes;
+    }
+
+    public int getRewindSpeed() {
+        return rewindSpeed;
+    }
+
+    public boolean isRecordReplays() {
+        return recordReplays;
+    }
+
+    public String getReplayDirectory() {
+        return replayDirectory;
+    }
+
+    public int getServerPort() {
+        return serverPort;
+    }
+
+    public int getServerMaxSessions() {
+        return serverMaxSessions;
+    }
+
+    public int getServerMetricsIntervalSeconds() {
+        return serverMetricsIntervalSeconds;
+    }
+
+    /**
+     * Reads typed values, collecting every problem instead of stopping at the first
+     */
+    private static final class Parser {
+        private final ConfigSnapshot config;
+        private final List<String> problems = new ArrayList<>();
+
+        Parser(ConfigSnapshot config) {
+            this.config = config;
+        }
+
+        String string(String key) {
+            String value = config.findApp(key);
+            if (value == null || value.trim().isEmpty()) {
+                problems.add("missing " + key);
+                return "";
+            }
+            return value.trim();
+        }
+
+        int anyInt(String key) {
+            return intAtLeast(key, Integer.MIN_VALUE);
+        }
+
+        int nonNegativeInt(String key) {
+            return intAtLeast(key, 0);
+        }
+
+        int positiveInt(String key) {
+            return intAtLeast(key, 1);
+        }
+
+        int exactInt(String key, int expected) {
+            int before = problems.size();
+            int parsed = intAtLeast(key, Integer.MIN_VALUE);
+            if (problems.size() == before && parsed != expected) {
+                problems.add(key + " must be " + expected + ": " + parsed);
+            }
+            return parsed;
+        }
+
+        double positiveDouble(String key) {
+            String value = config.findApp(key);
+            if (value == null) {
+                problems.add("missing " + key);
+                return 0;
+            }
+            try {
+                double parsed = Double.parseDouble(value.trim());
+                if (!(parsed > 0)) {
+                    problems.add(key + " must be positive: " + value);
+                }
+                return parsed;
+            } catch (NumberFormatException e) {
+                problems.add(key + " is not a number: " + value);
+                return 0;
+            }
+        }
+
+        boolean bool(String key) {
+            String value = config.findApp(key);
+            if (value == null) {
+                problems.add("missing " + key);
+                return false;
+            }
+            Boolean parsed = ConfigSnapshot.parseBoolean(value.trim());
+            if (parsed == null) {
+                problems.add(key + " is not a boolean: " + value);
+                return false;
+            }
+            return parsed;
+        }
+
+        // Two integers written "x,y"
+        int[] point(String key) {
+            String value = config.findApp(key);
+            if (value == null) {
+                problems.add("missing " + key);
+                return new int[2];
+            }
+            String[] parts = value.split(",");
+            try {
+                if (parts.length == 2) {
+                    return new int[] {Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim())};
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            problems.add(key + " is not x,y: " + value);
+            return new int[2];
+        }
+
+        // Positive level numbers written "1,2,3"
+        LevelSequence levelSequence(String key) {
+            String value = config.findApp(key);
+            if (value == null) {
+                problems.add("missing " + key);
+                return null;
+            }
+            try {
+                int[] numbers = Arrays.stream(value.split(","))
+                                      .map(String::trim)
+                                      .mapToInt(Integer::parseInt)
+                                      .toArray();
+                if (Arrays.stream(numbers).anyMatch(number -> number < 1)) {
+                    problems.add(key + " must list positive level numbers: " + value);
+                    return null;
+                }
+                return new LevelSequence(numbers);
+            } catch (NumberFormatException e) {
+                problems.add(key + " is not a list of level numbers: " + value);
+            } catch (IllegalArgumentException e) {
+                problems.add(key + ": " + e.getMessage());
+            }
+            return null;
+        }
+
+        void throwIfInvalid() {
+            if (!problems.isEmpty()) {
+                throw new IllegalArgumentException("Invalid app.properties: " + String.join("; ", problems));
+            }
+        }
+
+        private int intAtLeast(String key, int min) {
+            String value = config.findApp(key);
+            if (value == null) {
+                problems.add("missing " + key);
+                return 0;
+            }
+            try {
+                int parsed = Integer.parseInt(value.trim());
+                if (parsed < min) {
+                    problems.add(key + " must be at least " + min + ": " + value);
+                }
+                return parsed;
+            } catch (NumberFormatException e) {
+                problems.add(key + " is not an integer: " + value);
+                return 0;
+            }
+        }
+    }
+}
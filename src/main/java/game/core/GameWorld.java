@@ -0,0 +1,619 @@
+package game.core;
+
+import game.diagnostics.CollisionPassEvent;
+import game.diagnostics.FlightRecording;
+import game.diagnostics.FrameProfiler;
+import game.diagnostics.GameTickEvent;
+import game.diagnostics.Phase;
+import game.ecs.CollisionSystem;
+import game.ecs.EntityKind;
+import game.ecs.EntityStore;
+import game.ecs.GravitySystem;
+import game.ecs.PatrolSystem;
+import game.ecs.ThrowSystem;
+import game.entities.Blaster;
+import game.entities.DonkeyKong;
+import game.entities.Hammer;
+import game.entities.Ladder;
+import game.entities.Mario;
+import game.entities.Platform;
+import game.entities.ProjectileKind;
+import game.entities.ProjectilePool;
+import game.level.LevelData;
+import game.physics.LadderIndex;
+import game.physics.PlatformIndex;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Headless simulation of a single level.
+ * Owns every entity of the level and advances them one tick at a time from a
+ * {@link GameInput}. It never touches the window, images or fonts, so it can
+ * run without a GL context; rendering is layered on top by the caller.
+ */
+public class GameWorld {
+    /** Outcome of the level so far */
+    public enum Status { PLAYING, LOST, WON }
+
+    // Scoring constants
+    private static final int TIME_BONUS_PER_SECOND = 3;
+    private static final int MONKEY_POINTS = 100;
+
+    // Snapshot header, "SDKW"
+    private static final int SNAPSHOT_MAGIC = 0x53444B57;
+
+    // Level state
+    private final ConfigSnapshot config;
+    private final int level;
+    private final boolean combat;
+    private final int maxFrames;
+    private final int tickRate;
+    private int currentFrame = 0;
+    private Status status = Status.PLAYING;
+
+    // Game entities
+    private Mario mario;
+    private DonkeyKong donkey;
+    private Hammer hammer;
+    private final List<Platform> platforms = new ArrayList<>();
+    private PlatformIndex platformIndex;
+    private LadderIndex ladderIndex;
+    private final List<Ladder> ladders = new ArrayList<>();
+    private final List<Blaster> blasters = new ArrayList<>();
+    private final ProjectilePool bullets;
+    private final ProjectilePool bananas;
+
+    // Barrels and monkeys, created in that order, and the systems driving them
+    private final EntityStore entities = new EntityStore();
+    private final GravitySystem gravity;
+    private final PatrolSystem patrols;
+    private final ThrowSystem throwers;
+    private final CollisionSystem collisions;
+
+    // Held so the per-tick passes don't allocate a lambda each time
+    private final ProjectilePool.HitTest bulletHitTest = this::resolveBulletHit;
+    private final CollisionSystem.OverlapVisitor bulletHitsMonkey = this::destroyMonkey;
+    private final CollisionSystem.OverlapVisitor marioTouchesMonkey = this::resolveMonkeyContact;
+    private final CollisionSystem.OverlapVisitor anyBarrel = i -> true;
+
+    private FrameProfiler profiler = FrameProfiler.NONE;
+
+    /**
+     * Builds a level in its starting state from the current configuration
+     *
+     * @param level The level number to load
+     * @param startingScore Score carried over from previous levels
+     */
+    public GameWorld(int level, int startingScore) {
+        this(Config.snapshot(), level, startingScore);
+    }
+
+    /**
+     * Builds a level in its starting state, with its layout read from the configuration
+     *
+     * @param config The configuration this session reads all its settings from
+     * @param level The level number to load
+     * @param startingScore Score carried over from previous levels
+     */
+    public GameWorld(ConfigSnapshot config, int level, int startingScore) {
+        this(config, LevelData.fromConfig(config, level), startingScore);
+    }
+
+    /**
+     * Builds a level in its starting state
+     *
+     * @param config The configuration this session reads all its settings from
+     * @param layout Where everything in the level starts
+     * @param startingScore Score carried over from previous levels
+     */
+    public GameWorld(ConfigSnapshot config, LevelData layout, int startingScore) {
+        this.config = config;
+        this.level = layout.getNumber();
+
+        GameSettings settings = config.getSettings();
+        int projectileCapacity = settings.getProjectilePoolCapacity();
+        double windowWidth = settings.getWindowWidth();
+        this.bullets = new ProjectilePool(ProjectileKind.BULLET, projectileCapacity, windowWidth);
+        this.bananas = new ProjectilePool(ProjectileKind.BANANA, projectileCapacity, windowWidth);
+
+        // Build the entities of the layout
+        loadPlatforms(layout.getPlatforms());
+        platformIndex = new PlatformIndex(platforms);
+        gravity = new GravitySystem(platformIndex);
+        patrols = new PatrolSystem(platformIndex, windowWidth);
+        throwers = new ThrowSystem(bananas);
+        loadLadders(layout.getLadders());
+        connectLadders();
+        ladderIndex = new LadderIndex(ladders);
+        loadBarrels(layout.getBarrels());
+        hammer = new Hammer(layout.getHammerX(), layout.getHammerY());
+        loadBlasters(layout.getBlasters());
+        loadMonkeys(layout);
+        this.combat = !blasters.isEmpty() || layout.getMonkeys().size() > 0;
+
+        // Load player and enemy
+        initializePlayer(layout, startingScore);
+        initializeDonkey(layout);
+
+        this.maxFrames = settings.getMaxFrames();
+        this.tickRate = settings.getTickRate();
+        savePreviousPositions();
+
+        collisions = new CollisionSystem(entities, settings.getCellSize());
+    }
+
+    /**
+     * Initialize player character
+     */
+    private void initializePlayer(LevelData layout, int startingScore) {
+        mario = new Mario(layout.getMarioX(), layout.getMarioY(), platformIndex, config);
+        mario.addToScore(startingScore);
+    }
+
+    /**
+     * Initialize Donkey Kong
+     */
+    private void initializeDonkey(LevelData layout) {
+        donkey = new DonkeyKong(layout.getDonkeyX(), layout.getDonkeyY());
+        donkey.snapToPlatform(platformIndex);
+    }
+
+    private void loadPlatforms(LevelData.Points positions) {
+        for (int i = 0; i < positions.size(); i++) {
+            platforms.add(new Platform(positions.getX(i), positions.getY(i)));
+        }
+    }
+
+    private void loadLadders(LevelData.Points positions) {
+        for (int i = 0; i < positions.size(); i++) {
+            ladders.add(new Ladder(positions.getX(i), positions.getY(i)));
+        }
+    }
+
+    private void loadBarrels(LevelData.Points positions) {
+        for (int i = 0; i < positions.size(); i++) {
+            entities.create(EntityKind.BARREL, positions.getX(i), positions.getY(i));
+        }
+    }
+
+    private void loadBlasters(LevelData.Points positions) {
+        for (int i = 0; i < positions.size(); i++) {
+            blasters.add(new Blaster(positions.getX(i), positions.getY(i)));
+        }
+    }
+
+    private void loadMonkeys(LevelData layout) {
+        LevelData.Points positions = layout.getMonkeys();
+        for (int i = 0; i < positions.size(); i++) {
+            entities.create(layout.getMonkeyKind(i), positions.getX(i), positions.getY(i),
+                            layout.isMonkeyFacingRight(i), layout.getMonkeyRoute(i));
+        }
+    }
+
+    /**
+     * Connects ladders to the appropriate platforms
+     */
+    private void connectLadders() {
+        for (Ladder ladder : ladders) {
+            ladder.connectToPlatformAbove(platforms);
+        }
+    }
+
+    /**
+     * Destroys a monkey and awards its points
+     *
+     * @return true, so a bullet that hit it is used up
+     */
+    private boolean destroyMonkey(int index) {
+        entities.destroy(index);
+        mario.addToScore(MONKEY_POINTS);
+        return true;
+    }
+
+    /**
+     * Advances the level by one tick. Does nothing once the level is won or lost.
+     *
+     * @param input The player's input for this tick
+     */
+    public void tick(GameInput input) {
+        if (status != Status.PLAYING) {
+            return;
+        }
+
+        // Only created while recording, so a tick allocates nothing otherwise
+        GameTickEvent event = null;
+        if (FlightRecording.isTickEventsEnabled()) {
+            event = new GameTickEvent();
+            event.begin();
+        }
+        long start = profiler.start();
+        advance(input);
+
+        // Entities are only flagged when destroyed so dense indices stay
+        // valid during the tick; drop them now that it is over
+        if (entities.hasDestroyed()) {
+            collisions.removeDestroyed();
+            entities.compact();
+        }
+        profiler.stop(Phase.TICK, start);
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                commitTickEvent(event);
+            }
+        }
+    }
+
+    private void commitTickEvent(GameTickEvent event) {
+        event.level = level;
+        event.frame = currentFrame;
+        for (int i = 0; i < entities.size(); i++) {
+            if (entities.has(i, EntityStore.BARREL)) {
+                event.barrels++;
+            } else if (entities.has(i, EntityStore.MONKEY)) {
+                event.monkeys++;
+            }
+        }
+        event.bullets = bullets.size();
+        event.bananas = bananas.size();
+        event.commit();
+    }
+
+    private void advance(GameInput input) {
+        savePreviousPositions();
+        currentFrame++;
+
+        if (currentFrame >= maxFrames) {
+            status = Status.LOST;
+            return;
+        }
+
+        entities.clearFlags(EntityStore.SCORED);
+
+        long start = profiler.start();
+        CollisionPassEvent pass = CollisionPassEvent.begin(CollisionPassEvent.LADDERS);
+        mario.checkLadderCollisions(ladderIndex, input);
+        CollisionPassEvent.end(pass);
+        profiler.stop(Phase.LADDERS, start);
+
+        double oldBottomY = mario.getBottomY();
+
+        start = profiler.start();
+        mario.update(input);
+        profiler.stop(Phase.MARIO, start);
+
+        start = profiler.start();
+        mario.awardJumpPoints(collisions, oldBottomY);
+        profiler.stop(Phase.JUMP_SCORING, start);
+
+        start = profiler.start();
+        pass = CollisionPassEvent.begin(CollisionPassEvent.MARIO_BARRELS);
+        mario.checkBarrelCollisions(entities);
+        CollisionPassEvent.end(pass);
+
+        if (!mario.isClimbing()) {
+            pass = CollisionPassEvent.begin(CollisionPassEvent.PLATFORMS);
+            mario.checkPlatformCollision(platformIndex);
+            CollisionPassEvent.end(pass);
+        }
+        profiler.stop(Phase.COLLISIONS, start);
+
+        if (combat) {
+            start = profiler.start();
+            for (int i = 0; i < blasters.size(); i++) {
+                blasters.get(i).update(mario);
+            }
+
+            if (input.has(Action.SHOOT) && mario.tryShoot()) {
+                bullets.spawn(mario.getX(), mario.getY(), mario.isFacingRight(), ProjectilePool.OWNER_PLAYER);
+            }
+
+            updateBullets();
+            profiler.stop(Phase.BULLETS, start);
+
+            start = profiler.start();
+            updateMonkeys();
+            profiler.stop(Phase.MONKEYS, start);
+
+            start = profiler.start();
+            updateBananas();
+            profiler.stop(Phase.BANANAS, start);
+        }
+
+        if (mario.intersects(donkey) && mario.hasHammer()) {
+            status = Status.WON;
+            return;
+        }
+
+        hammer.update(mario);
+
+        start = profiler.start();
+        updateBarrels();
+        profiler.stop(Phase.BARRELS, start);
+
+        if (mario.intersects(donkey) && !mario.hasHammer()) {
+            status = Status.LOST;
+        }
+    }
+
+    /**
+     * Records every entity's position before a tick for render interpolation
+     */
+    private void savePreviousPositions() {
+        mario.savePreviousPosition();
+        donkey.savePreviousPosition();
+        hammer.savePreviousPosition();
+        platforms.forEach(GameObject::savePreviousPosition);
+        ladders.forEach(GameObject::savePreviousPosition);
+        blasters.forEach(GameObject::savePreviousPosition);
+        entities.savePreviousPositions();
+        bullets.savePreviousPositions();
+        bananas.savePreviousPositions();
+    }
+
+    /**
+     * Moves bullets, removes the ones that despawn and applies their hits
+     */
+    private void updateBullets() {
+        CollisionPassEvent pass = CollisionPassEvent.begin(CollisionPassEvent.BULLETS);
+        bullets.update(bulletHitTest);
+        CollisionPassEvent.end(pass);
+    }
+
+    /**
+     * Applies the hit of one bullet that has just moved
+     *
+     * @return true if the bullet hit and should be removed
+     */
+    private boolean resolveBulletHit(ProjectilePool pool, int index) {
+        double x = pool.getX(index);
+        double y = pool.getY(index);
+        double halfWidth = pool.getHalfWidth(index);
+        double halfHeight = pool.getHalfHeight(index);
+
+        // Check for bullet hits on monkeys, normal ones first
+        if (collisions.forEachOverlap(EntityStore.MONKEY, x, y, halfWidth, halfHeight, 5.0, 5.0, bulletHitsMonkey)) {
+            return true;
+        }
+
+        // Check if bullet hit Donkey Kong
+        if (!donkey.isDead() && donkey.intersects(x, y, halfWidth, halfHeight, 5.0, 5.0)) {
+            donkey.reduceHealth();
+
+            if (donkey.isDead()) {
+                status = Status.WON;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves both kinds of monkeys, throws bananas and resolves contact with Mario
+     */
+    private void updateMonkeys() {
+        patrols.update(entities);
+        collisions.sync(EntityStore.MONKEY);
+        throwers.update(entities);
+
+        // Mario collision, same margin as monkeys always used against him
+        CollisionPassEvent pass = CollisionPassEvent.begin(CollisionPassEvent.MONKEYS);
+        collisions.forEachOverlap(EntityStore.MONKEY, mario, 5.0, 5.0, marioTouchesMonkey);
+        CollisionPassEvent.end(pass);
+    }
+
+    private boolean resolveMonkeyContact(int index) {
+        if (mario.hasHammer()) {
+            // Destroy monkey with hammer
+            destroyMonkey(index);
+        } else {
+            // Kill Mario if not holding hammer
+            status = Status.LOST;
+        }
+        return false;
+    }
+
+    /**
+     * Moves bananas and checks whether one of them hit Mario
+     */
+    private void updateBananas() {
+        CollisionPassEvent pass = CollisionPassEvent.begin(CollisionPassEvent.BANANAS);
+        if (bananas.anyOverlap(mario, 5.0, 5.0)) {
+            status = Status.LOST;
+        }
+        CollisionPassEvent.end(pass);
+
+        bananas.update(null);
+    }
+
+    /**
+     * Updates all barrels and checks for collisions
+     */
+    private void updateBarrels() {
+        gravity.update(entities);
+        collisions.sync(EntityStore.BARREL);
+
+        // Same margin as Mario.intersects
+        CollisionPassEvent pass = CollisionPassEvent.begin(CollisionPassEvent.BARRELS);
+        if (!mario.hasHammer() && collisions.forEachOverlap(EntityStore.BARREL, mario, 2.0, 2.0, anyBarrel)) {
+            status = Status.LOST;
+        }
+        CollisionPassEvent.end(pass);
+    }
+
+    /**
+     * Writes the complete mutable state of the level to a buffer without
+     * allocating. Platforms and ladders never change after loading and are
+     * not included.
+     *
+     * @throws java.nio.BufferOverflowException If the buffer is too small
+     */
+    public void writeState(ByteBuffer out) {
+        out.putInt(SNAPSHOT_MAGIC).putInt(level);
+        out.putInt(entities.getIdCount()).putInt(blasters.size());
+        out.putInt(currentFrame);
+        out.put((byte) status.ordinal());
+
+        mario.writeState(out, ladders);
+        donkey.writeState(out);
+        hammer.writeState(out);
+        for (int i = 0; i < blasters.size(); i++) {
+            blasters.get(i).writeState(out);
+        }
+        entities.writeState(out);
+
+        bullets.writeState(out);
+        bananas.writeState(out);
+    }
+
+    /**
+     * Restores state written by {@link #writeState} for this same level.
+     * Projectiles are copied into the existing pools, which only allocate
+     * if the snapshot holds more than they have room for.
+     *
+     * @throws IllegalArgumentException If the snapshot is from a different level layout
+     */
+    public void readState(ByteBuffer in) {
+        if (in.getInt() != SNAPSHOT_MAGIC || in.getInt() != level
+                || in.getInt() != entities.getIdCount() || in.getInt() != blasters.size()) {
+            throw new IllegalArgumentException("Snapshot does not belong to this level");
+        }
+        currentFrame = in.getInt();
+        status = Status.values()[in.get()];
+
+        mario.readState(in, ladders);
+        donkey.readState(in);
+        hammer.readState(in);
+        for (int i = 0; i < blasters.size(); i++) {
+            blasters.get(i).readState(in);
+        }
+        entities.readState(in);
+
+        bullets.readState(in);
+        bananas.readState(in);
+
+        // Positions were replaced wholesale
+        collisions.rebuild();
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Checks whether the level has blasters or monkeys, and so bullets,
+     * bananas and a Donkey Kong that can be shot down
+     */
+    public boolean isCombatLevel() {
+        return combat;
+    }
+
+    /**
+     * Adds the score carried over from earlier levels to a world built with
+     * a starting score of 0, e.g. one built before the previous level ended
+     *
+     * @throws IllegalStateException If the level has already been played
+     */
+    public void carryOverScore(int score) {
+        if (currentFrame != 0) {
+            throw new IllegalStateException("Score can only be carried into a level before it starts");
+        }
+        mario.addToScore(score);
+    }
+
+    /**
+     * Times the phases of every following tick into a profiler
+     *
+     * @param profiler The profiler, or {@link FrameProfiler#NONE} to stop timing
+     */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Gets how many entity and projectile boxes were tested for overlap
+     * since the level was built
+     */
+    public long getCollisionTests() {
+        return entities.getIntersectTests() + bullets.getOverlapTests() + bananas.getOverlapTests();
+    }
+
+    /**
+     * Gets how many of the {@link #getCollisionTests() tests} found an overlap
+     */
+    public long getCollisionHits() {
+        return entities.getIntersectHits() + bullets.getOverlapHits() + bananas.getOverlapHits();
+    }
+
+    public ConfigSnapshot getConfig() {
+        return config;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getCurrentFrame() {
+        return currentFrame;
+    }
+
+    /**
+     * Gets the remaining time in whole seconds
+     */
+    public int getTimeLeft() {
+        return (maxFrames - currentFrame) / tickRate;
+    }
+
+    /**
+     * Gets the score shown on the end screen: Mario's score plus a time
+     * bonus if the level was won, or 0 otherwise
+     */
+    public int getFinalScore() {
+        if (status != Status.WON) {
+            return 0;
+        }
+        return mario.getFinalScore() + getTimeLeft() * TIME_BONUS_PER_SECOND;
+    }
+
+    public Mario getMario() {
+        return mario;
+    }
+
+    public DonkeyKong getDonkey() {
+        return donkey;
+    }
+
+    public Hammer getHammer() {
+        return hammer;
+    }
+
+    public List<Platform> getPlatforms() {
+        return Collections.unmodifiableList(platforms);
+    }
+
+    public List<Ladder> getLadders() {
+        return Collections.unmodifiableList(ladders);
+    }
+
+    public List<Blaster> getBlasters() {
+        return Collections.unmodifiableList(blasters);
+    }
+
+    public ProjectilePool getBullets() {
+        return bullets;
+    }
+
+    /**
+     * Gets the barrels and monkeys of the level
+     */
+    public EntityStore getEntities() {
+        return entities;
+    }
+
+    public ProjectilePool getBananas() {
+        return bananas;
+    }
+}
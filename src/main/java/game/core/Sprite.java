@@ -0,0 +1,73 @@
+package game.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * Immutable description of a sprite: the image path and its pixel size.
+ * Only the image header is read, so sprites can be used for collision
+ * without a GL context. Instances are shared per path.
+ */
+public final class Sprite {
+    private static final Logger LOGGER = Logger.getLogger(Sprite.class.getName());
+    private static final Map<String, Sprite> CACHE = new ConcurrentHashMap<>();
+
+    private final String path;
+    private final double width;
+    private final double height;
+
+    private Sprite(String path, double width, double height) {
+        this.path = path;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Returns the shared sprite for the given image path, reading its size on first use.
+     *
+     * @param path Path to the image file
+     * @return The sprite describing that image
+     */
+    public static Sprite of(String path) {
+        return CACHE.computeIfAbsent(path, Sprite::load);
+    }
+
+    private static Sprite load(String path) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new File(path))) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported or missing image: " + path);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in);
+                return new Sprite(path, reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Failed to read sprite size: " + path, e);
+            throw new RuntimeException("Failed to load sprite " + path, e);
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,64 @@
+package game.core;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable off-heap buffer holding one captured {@link GameWorld} state.
+ * Capturing and restoring reuse the same buffer, so once it is large enough
+ * neither allocates; it only grows if a capture doesn't fit.
+ */
+public final class WorldSnapshot {
+    private static final int DEFAULT_CAPACITY = 16 * 1024;
+
+    private ByteBuffer buffer;
+    private boolean captured = false;
+
+    public WorldSnapshot() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a snapshot with the given initial capacity in bytes
+     */
+    public WorldSnapshot(int capacity) {
+        this.buffer = ByteBuffer.allocateDirect(capacity);
+    }
+
+    /**
+     * Captures the world's current state, replacing any previous capture
+     */
+    public void capture(GameWorld world) {
+        while (true) {
+            try {
+                buffer.clear();
+                world.writeState(buffer);
+                buffer.flip();
+                captured = true;
+                return;
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+            }
+        }
+    }
+
+    /**
+     * Restores the captured state into a world of the same level
+     *
+     * @throws IllegalStateException If nothing has been captured yet
+     */
+    public void restore(GameWorld world) {
+        if (!captured) {
+            throw new IllegalStateException("No world state has been captured");
+        }
+        buffer.rewind();
+        world.readState(buffer);
+    }
+
+    /**
+     * Gets the size of the captured state in bytes
+     */
+    public int getSize() {
+        return captured ? buffer.limit() : 0;
+    }
+}
@@ -0,0 +1,29 @@
+package game.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for loading one image or font
+ */
+@Name("game.AssetLoad")
+@Label("Asset Load")
+@Description("Loading an image texture or a font")
+@Category({"Shadow Donkey Kong", "Loading"})
+public final class AssetLoadEvent extends jdk.jfr.Event {
+    /** Asset kinds */
+    public static final String IMAGE = "image";
+    public static final String FONT = "font";
+
+    @Label("Path")
+    public String path;
+
+    @Label("Kind")
+    public String kind;
+
+    @Label("Font Size")
+    @Description("Size in points, 0 for images")
+    public int fontSize;
+}
@@ -0,0 +1,69 @@
+package game.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one collision loop within a tick. No event is
+ * created unless a running recording has it enabled.
+ * <pre>
+ *   CollisionPassEvent pass = CollisionPassEvent.begin(CollisionPassEvent.BANANAS);
+ *   boolean hit = bananas.anyOverlap(mario, 5.0, 5.0);
+ *   CollisionPassEvent.end(pass);
+ * </pre>
+ */
+@Name("game.CollisionPass")
+@Label("Collision Pass")
+@Description("One collision loop of a simulation tick")
+@Category({"Shadow Donkey Kong", "Simulation"})
+@StackTrace(false)
+public final class CollisionPassEvent extends jdk.jfr.Event {
+    /** Mario against the ladder he can climb */
+    public static final String LADDERS = "ladders";
+    /** Mario jumping over or smashing barrels */
+    public static final String MARIO_BARRELS = "marioBarrels";
+    /** Mario landing on platforms */
+    public static final String PLATFORMS = "platforms";
+    /** Bullets against monkeys and Donkey Kong */
+    public static final String BULLETS = "bullets";
+    /** Monkeys touching Mario */
+    public static final String MONKEYS = "monkeys";
+    /** Bananas hitting Mario */
+    public static final String BANANAS = "bananas";
+    /** Barrels hitting Mario */
+    public static final String BARRELS = "barrels";
+
+    @Label("Pass")
+    public String pass;
+
+    /**
+     * Starts timing a collision pass; {@link #end(CollisionPassEvent)} records it
+     *
+     * @param pass One of the pass names above
+     * @return The started event, or null if no recording is running with it enabled
+     */
+    public static CollisionPassEvent begin(String pass) {
+        if (!FlightRecording.isTickEventsEnabled()) {
+            return null;
+        }
+
+        CollisionPassEvent event = new CollisionPassEvent();
+        event.pass = pass;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records a collision pass started with {@link #begin(String)}
+     *
+     * @param event The started event, or null to do nothing
+     */
+    public static void end(CollisionPassEvent event) {
+        if (event != null) {
+            event.commit();
+        }
+    }
+}
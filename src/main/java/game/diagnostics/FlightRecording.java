@@ -0,0 +1,87 @@
+package game.diagnostics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import jdk.jfr.Configuration;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Starts a Java Flight Recorder recording from inside the game, with the
+ * JDK's "profile" settings plus the game's own events. The recording is
+ * written to its file when the JVM exits. Open it in JDK Mission Control
+ * to line up slow ticks with GC pauses, JIT compilation and file I/O.
+ * <p>
+ * The per-tick events are only created while a running recording has them
+ * enabled, so otherwise a tick still allocates nothing. Whether one is running is
+ * kept up to date by a listener rather than asked of the recorder each tick,
+ * and includes recordings started with {@code -XX:StartFlightRecording} or jcmd.
+ */
+public final class FlightRecording {
+    private static final String SETTINGS = "profile";
+
+    private static volatile boolean tickEventsEnabled = false;
+
+    static {
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recorderInitialized(FlightRecorder recorder) {
+                update(recorder);
+            }
+
+            @Override
+            public void recordingStateChanged(Recording changed) {
+                update(FlightRecorder.getFlightRecorder());
+            }
+        });
+    }
+
+    private FlightRecording() {}
+
+    /**
+     * Checks whether a running recording records {@link GameTickEvent} or
+     * {@link CollisionPassEvent}, without allocating
+     */
+    public static boolean isTickEventsEnabled() {
+        return tickEventsEnabled;
+    }
+
+    private static void update(FlightRecorder recorder) {
+        boolean running = false;
+        for (Recording r : recorder.getRecordings()) {
+            running |= r.getState() == RecordingState.RUNNING;
+        }
+        tickEventsEnabled = running && (EventType.getEventType(GameTickEvent.class).isEnabled()
+                                        || EventType.getEventType(CollisionPassEvent.class).isEnabled());
+    }
+
+    /**
+     * Starts recording until the JVM exits
+     *
+     * @param file Where the recording is written on exit, e.g. "game.jfr"
+     * @throws IOException If the settings can't be read or the recording can't start
+     */
+    public static Recording start(Path file) throws IOException {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(SETTINGS);
+        } catch (ParseException e) {
+            throw new IOException("Invalid Flight Recorder settings " + SETTINGS, e);
+        }
+
+        Recording recording = new Recording(configuration);
+        recording.setName("Shadow Donkey Kong");
+        recording.enable(GameTickEvent.class);
+        recording.enable(CollisionPassEvent.class);
+        recording.enable(LevelLoadEvent.class);
+        recording.enable(AssetLoadEvent.class);
+        recording.setDestination(file);
+        recording.setDumpOnExit(true);
+        recording.start();
+        return recording;
+    }
+}
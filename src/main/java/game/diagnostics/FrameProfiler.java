@@ -0,0 +1,110 @@
+package game.diagnostics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Times each {@link Phase} of every frame into its own preallocated
+ * {@link LatencyHistogram}. Timing a phase is two {@code System.nanoTime}
+ * calls and a lock-free record, and never allocates. The disabled profiler
+ * {@link #NONE} skips even the clock reads, so instrumented code can call it
+ * unconditionally.
+ * <pre>
+ *   long start = profiler.start();
+ *   mario.update(input);
+ *   profiler.stop(Phase.MARIO, start);
+ * </pre>
+ */
+public final class FrameProfiler {
+    private static final Phase[] PHASES = Phase.values();
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    /** A profiler that records nothing */
+    public static final FrameProfiler NONE = new FrameProfiler(false);
+
+    private final boolean enabled;
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length];
+
+    /**
+     * Creates an enabled profiler with empty histograms
+     */
+    public FrameProfiler() {
+        this(true);
+    }
+
+    private FrameProfiler(boolean enabled) {
+        this.enabled = enabled;
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reads the clock at the start of a phase
+     *
+     * @return The start time to hand to {@link #stop}, or 0 when disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since a phase started
+     *
+     * @param start What {@link #start} returned at the beginning of the phase
+     */
+    public void stop(Phase phase, long start) {
+        if (enabled) {
+            histograms[phase.ordinal()].record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gets the durations recorded for a phase
+     */
+    public LatencyHistogram get(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    /**
+     * Clears every phase's durations
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Formats the count, p50, p99 and maximum of every phase as JSON, with
+     * durations in microseconds
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n  \"unit\": \"us\",\n  \"phases\": {\n");
+        for (int i = 0; i < PHASES.length; i++) {
+            LatencyHistogram histogram = histograms[i];
+            json.append(String.format(Locale.ROOT,
+                    "    \"%s\": {\"count\": %d, \"p50\": %.1f, \"p99\": %.1f, \"max\": %.1f}%s\n",
+                    PHASES[i].name(), histogram.getCount(),
+                    histogram.getPercentile(50) / NANOS_PER_MICRO,
+                    histogram.getPercentile(99) / NANOS_PER_MICRO,
+                    histogram.getMax() / NANOS_PER_MICRO,
+                    i + 1 < PHASES.length ? "," : ""));
+        }
+        return json.append("  }\n}\n").toString();
+    }
+
+    /**
+     * Writes {@link #toJson()} to a file
+     */
+    public void writeJson(Path file) throws IOException {
+        Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+    }
+}
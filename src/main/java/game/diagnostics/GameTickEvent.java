@@ -0,0 +1,37 @@
+package game.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one simulation tick, with how many of each kind
+ * of moving entity the level held when it ended
+ */
+@Name("game.GameTick")
+@Label("Game Tick")
+@Description("One fixed simulation tick of a level")
+@Category({"Shadow Donkey Kong", "Simulation"})
+@StackTrace(false)
+public final class GameTickEvent extends jdk.jfr.Event {
+    @Label("Level")
+    public int level;
+
+    @Label("Frame")
+    @Description("Simulation frame the tick advanced to")
+    public int frame;
+
+    @Label("Barrels")
+    public int barrels;
+
+    @Label("Monkeys")
+    public int monkeys;
+
+    @Label("Bullets")
+    public int bullets;
+
+    @Label("Bananas")
+    public int bananas;
+}
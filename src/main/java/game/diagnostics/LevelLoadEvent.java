@@ -0,0 +1,23 @@
+package game.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for building a level in its starting state,
+ * on the game thread or while prefetching the next level
+ */
+@Name("game.LevelLoad")
+@Label("Level Load")
+@Description("Building a level from its layout")
+@Category({"Shadow Donkey Kong", "Loading"})
+public final class LevelLoadEvent extends jdk.jfr.Event {
+    @Label("Level")
+    public int level;
+
+    @Label("Compiled")
+    @Description("Whether the layout came from the compiled level file rather than app.properties")
+    public boolean compiled;
+}
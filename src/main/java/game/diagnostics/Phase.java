@@ -0,0 +1,31 @@
+package game.diagnostics;
+
+/**
+ * The parts of a frame a {@link FrameProfiler} times separately
+ */
+public enum Phase {
+    /** Everything update does in one frame */
+    FRAME,
+    /** One whole simulation tick */
+    TICK,
+    /** Finding the ladder Mario can climb */
+    LADDERS,
+    /** Mario's movement and physics */
+    MARIO,
+    /** Scoring barrels jumped over */
+    JUMP_SCORING,
+    /** Mario's barrel and platform collisions */
+    COLLISIONS,
+    /** Moving the barrels */
+    BARRELS,
+    /** Blasters, shooting and moving bullets */
+    BULLETS,
+    /** Monkey patrols and throws */
+    MONKEYS,
+    /** Moving bananas */
+    BANANAS,
+    /** Drawing the world */
+    RENDER_WORLD,
+    /** Drawing the heads-up display */
+    RENDER_HUD
+}
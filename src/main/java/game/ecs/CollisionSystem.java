@@ -0,0 +1,161 @@
+package game.ecs;
+
+import game.core.GameObject;
+import game.physics.SpatialHash;
+
+/**
+ * Broadphase over the entities of an {@link EntityStore}. The grid is kept
+ * in step with the store by {@link #sync} after a system moved entities, and
+ * queries report the live entities overlapping a probe in id order.
+ * Queries must not be started from inside a visitor.
+ */
+public final class CollisionSystem {
+    /**
+     * Receives the entities overlapping a probe
+     */
+    @FunctionalInterface
+    public interface OverlapVisitor {
+        /**
+         * @param index Dense index of the overlapping entity
+         * @return true to stop the query
+         */
+        boolean visit(int index);
+    }
+
+    private final EntityStore store;
+    private final SpatialHash grid;
+
+    // State of the running query, held so queries don't capture a lambda
+    private int queryComponents;
+    private double queryX;
+    private double queryY;
+    private double queryHalfWidth;
+    private double queryHalfHeight;
+    private double queryXMargin;
+    private double queryYMargin;
+    private OverlapVisitor queryVisitor;
+    private final SpatialHash.CandidateVisitor narrowPhase = this::testCandidate;
+    private final SpatialHash.CandidateVisitor broadPhase = this::visitCandidate;
+
+    /**
+     * Creates the broadphase and registers every entity already in the store
+     *
+     * @param store The entities to collide
+     * @param cellSize Width and height of a grid cell in pixels
+     */
+    public CollisionSystem(EntityStore store, double cellSize) {
+        this.store = store;
+        this.grid = new SpatialHash(cellSize);
+        rebuild();
+    }
+
+    /**
+     * Re-buckets the live entities with the given components after they moved
+     */
+    public void sync(int componentMask) {
+        for (int i = 0, size = store.size(); i < size; i++) {
+            if (store.has(i, componentMask) && !store.isDestroyed(i)) {
+                register(i);
+            }
+        }
+    }
+
+    /**
+     * Unregisters the destroyed entities; call before {@link EntityStore#compact()}
+     */
+    public void removeDestroyed() {
+        for (int i = 0, size = store.size(); i < size; i++) {
+            if (store.isDestroyed(i)) {
+                grid.remove(store.getId(i));
+            }
+        }
+    }
+
+    /**
+     * Registers every entity from scratch, e.g. after the store was restored from a snapshot
+     */
+    public void rebuild() {
+        grid.clear();
+        for (int i = 0, size = store.size(); i < size; i++) {
+            if (!store.isDestroyed(i)) {
+                register(i);
+            }
+        }
+    }
+
+    /**
+     * Visits, in id order, every live entity with the given components
+     * intersecting an object, as tested by
+     * {@link EntityStore#intersects(int, double, double, double, double, double, double)}
+     *
+     * @return true if the visitor stopped the query
+     */
+    public boolean forEachOverlap(int componentMask, GameObject probe, double xMargin, double yMargin,
+                                  OverlapVisitor visitor) {
+        return forEachOverlap(componentMask, probe.getX(), probe.getY(), probe.getHalfWidth(),
+                              probe.getHalfHeight(), xMargin, yMargin, visitor);
+    }
+
+    /**
+     * Visits, in id order, every live entity with the given components
+     * intersecting a probe box, as tested by
+     * {@link EntityStore#intersects(int, double, double, double, double, double, double)}
+     *
+     * @return true if the visitor stopped the query
+     */
+    public boolean forEachOverlap(int componentMask, double x, double y, double halfWidth, double halfHeight,
+                                  double xMargin, double yMargin, OverlapVisitor visitor) {
+        queryComponents = componentMask;
+        queryX = x;
+        queryY = y;
+        queryHalfWidth = halfWidth;
+        queryHalfHeight = halfHeight;
+        queryXMargin = xMargin;
+        queryYMargin = yMargin;
+        queryVisitor = visitor;
+        try {
+            return grid.forEachCandidate(x - halfWidth, y - halfHeight, x + halfWidth, y + halfHeight,
+                                         narrowPhase);
+        } finally {
+            queryVisitor = null;
+        }
+    }
+
+    /**
+     * Visits, in id order, every live entity with the given components
+     * bucketed in a grid cell the box touches. This is a superset of the
+     * entities overlapping the box, for visitors that do their own test.
+     *
+     * @return true if the visitor stopped the query
+     */
+    public boolean forEachNear(int componentMask, double left, double top, double right, double bottom,
+                               OverlapVisitor visitor) {
+        queryComponents = componentMask;
+        queryVisitor = visitor;
+        try {
+            return grid.forEachCandidate(left, top, right, bottom, broadPhase);
+        } finally {
+            queryVisitor = null;
+        }
+    }
+
+    public EntityStore getEntities() {
+        return store;
+    }
+
+    private boolean visitCandidate(int id) {
+        int i = store.indexOf(id);
+        return i >= 0 && store.has(i, queryComponents) && !store.isDestroyed(i) && queryVisitor.visit(i);
+    }
+
+    private boolean testCandidate(int id) {
+        int i = store.indexOf(id);
+        return i >= 0 && store.has(i, queryComponents) && !store.isDestroyed(i)
+            && store.intersects(i, queryX, queryY, queryHalfWidth, queryHalfHeight, queryXMargin, queryYMargin)
+            && queryVisitor.visit(i);
+    }
+
+    private void register(int i) {
+        grid.update(store.getId(i), store.getLeft(i), store.getTop(i), store.getRight(i), store.getBottom(i));
+    }
+}
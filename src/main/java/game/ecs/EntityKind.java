@@ -0,0 +1,42 @@
+package game.ecs;
+
+import game.core.Sprite;
+
+/**
+ * The kinds of entity kept in an {@link EntityStore}, with the components
+ * each one is created with and its sprites.
+ */
+public enum EntityKind {
+    /** Falls onto platforms; Mario jumps over it or smashes it with the hammer */
+    BARREL("res/barrel.png", "res/barrel.png", EntityStore.BARREL | EntityStore.GRAVITY),
+    /** Walks a patrol route along its platform */
+    NORMAL_MONKEY("res/normal_monkey_right.png", "res/normal_monkey_left.png",
+                  EntityStore.MONKEY | EntityStore.PATROL),
+    /** Patrols like a normal monkey and throws bananas */
+    INTELLIGENT_MONKEY("res/intelli_monkey_right.png", "res/intelli_monkey_left.png",
+                       EntityStore.MONKEY | EntityStore.PATROL | EntityStore.THROWER);
+
+    private final Sprite spriteRight;
+    private final Sprite spriteLeft;
+    private final int components;
+
+    EntityKind(String rightImage, String leftImage, int components) {
+        this.spriteRight = Sprite.of(rightImage);
+        this.spriteLeft = Sprite.of(leftImage);
+        this.components = components;
+    }
+
+    /**
+     * Gets the sprite for an entity facing the given way
+     */
+    public Sprite getSprite(boolean facingRight) {
+        return facingRight ? spriteRight : spriteLeft;
+    }
+
+    /**
+     * Gets the component bits entities of this kind are created with
+     */
+    public int getComponents() {
+        return components;
+    }
+}
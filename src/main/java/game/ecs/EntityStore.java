@@ -0,0 +1,489 @@
+package game.ecs;
+
+import game.core.Sprite;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The barrels and monkeys of a level, stored as dense component arrays.
+ * Each entity gets a stable id in creation order and lives at a dense index
+ * that systems iterate from 0 to {@link #size()}; a sparse array maps ids to
+ * indices. Which systems act on an entity is decided by its component bits.
+ * <p>
+ * Destroying an entity only flags it, so indices stay valid for the rest of
+ * the tick. {@link #compact()} then drops the flagged entities, keeping the
+ * others in creation order, so iterating by index is always iterating by id.
+ */
+public final class EntityStore {
+    // Component bits, fixed by the entity's kind
+    /** Tag of barrels */
+    public static final int BARREL = 1;
+    /** Tag of monkeys, normal or intelligent */
+    public static final int MONKEY = 1 << 1;
+    /** Falls onto platforms, see {@link GravitySystem} */
+    public static final int GRAVITY = 1 << 2;
+    /** Walks a route along its platform, see {@link PatrolSystem} */
+    public static final int PATROL = 1 << 3;
+    /** Throws bananas, see {@link ThrowSystem} */
+    public static final int THROWER = 1 << 4;
+
+    // Lifecycle and state flags
+    /** Removed by the next {@link #compact()} and ignored by every system until then */
+    public static final int DESTROYED = 1;
+    /** Facing, and for patrols walking, right */
+    public static final int FACING_RIGHT = 1 << 1;
+    /** A barrel that already scored a jump this tick */
+    public static final int SCORED = 1 << 2;
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int NO_INDEX = -1;
+
+    // Per id, fixed when the entity is created
+    private EntityKind[] kindById = new EntityKind[INITIAL_CAPACITY];
+    private int[][] routeById = new int[INITIAL_CAPACITY][];
+    private int[] indexById = new int[INITIAL_CAPACITY];
+    private int idCount = 0;
+
+    // Per dense index: identity and lifecycle
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] components = new int[INITIAL_CAPACITY];
+    private int[] flags = new int[INITIAL_CAPACITY];
+
+    // Transform
+    private double[] x = new double[INITIAL_CAPACITY];
+    private double[] y = new double[INITIAL_CAPACITY];
+    private double[] previousX = new double[INITIAL_CAPACITY];
+    private double[] previousY = new double[INITIAL_CAPACITY];
+
+    // Velocity
+    private double[] velocityY = new double[INITIAL_CAPACITY];
+
+    // Sprite and the AABB it implies
+    private Sprite[] sprites = new Sprite[INITIAL_CAPACITY];
+    private double[] halfWidth = new double[INITIAL_CAPACITY];
+    private double[] halfHeight = new double[INITIAL_CAPACITY];
+
+    // Patrol progress and throw cooldown
+    private int[] routeIndex = new int[INITIAL_CAPACITY];
+    private double[] walked = new double[INITIAL_CAPACITY];
+    private int[] fireCooldown = new int[INITIAL_CAPACITY];
+
+    private int size = 0;
+    private int destroyedCount = 0;
+
+    // Box tests made by intersects, for metrics; not part of the saved state
+    private long intersectTests = 0;
+    private long intersectHits = 0;
+
+    /**
+     * Creates an entity that doesn't patrol, such as a barrel
+     *
+     * @return The new entity's id
+     */
+    public int create(EntityKind kind, double x, double y) {
+        return create(kind, x, y, false, null);
+    }
+
+    /**
+     * Creates an entity
+     *
+     * @param kind What the entity is
+     * @param x Starting centre x
+     * @param y Starting centre y
+     * @param facingRight Whether it starts facing right
+     * @param route Distances of the legs of its patrol, or null if it doesn't patrol
+     * @return The new entity's id
+     */
+    public int create(EntityKind kind, double x, double y, boolean facingRight, int[] route) {
+        if ((kind.getComponents() & PATROL) != 0 && (route == null || route.length == 0)) {
+            throw new IllegalArgumentException(kind + " needs a patrol route");
+        }
+
+        if (idCount == kindById.length) {
+            growIds(idCount * 2);
+        }
+        int id = idCount++;
+        kindById[id] = kind;
+        routeById[id] = route;
+
+        if (size == ids.length) {
+            growDense(size * 2);
+        }
+        int i = size++;
+        indexById[id] = i;
+        ids[i] = id;
+        components[i] = kind.getComponents();
+        flags[i] = facingRight ? FACING_RIGHT : 0;
+        this.x[i] = previousX[i] = x;
+        this.y[i] = previousY[i] = y;
+        velocityY[i] = 0;
+        routeIndex[i] = 0;
+        walked[i] = 0;
+        fireCooldown[i] = 0;
+        setSprite(i, kind.getSprite(facingRight));
+        return id;
+    }
+
+    /**
+     * Counts the live entities of a kind
+     */
+    public int count(EntityKind kind) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (!isDestroyed(i) && getKind(i) == kind) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of entities, including destroyed ones not compacted yet
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets how many ids were handed out; every id is below this
+     */
+    public int getIdCount() {
+        return idCount;
+    }
+
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Gets the dense index of an entity
+     *
+     * @return The index, or -1 if the entity has been compacted away
+     */
+    public int indexOf(int id) {
+        return indexById[id];
+    }
+
+    public EntityKind getKind(int index) {
+        return kindById[ids[index]];
+    }
+
+    /**
+     * Whether the entity has all the given component bits
+     */
+    public boolean has(int index, int componentMask) {
+        return (components[index] & componentMask) == componentMask;
+    }
+
+    /**
+     * Whether the entity has all the given flags set
+     */
+    public boolean is(int index, int flagMask) {
+        return (flags[index] & flagMask) == flagMask;
+    }
+
+    /**
+     * Sets or clears flags of one entity. Use {@link #destroy} to destroy it.
+     */
+    public void setFlags(int index, int flagMask, boolean on) {
+        flags[index] = on ? flags[index] | flagMask : flags[index] & ~flagMask;
+    }
+
+    /**
+     * Clears flags of every entity, e.g. per-tick flags at the start of a tick
+     */
+    public void clearFlags(int flagMask) {
+        for (int i = 0; i < size; i++) {
+            flags[i] &= ~flagMask;
+        }
+    }
+
+    public boolean isDestroyed(int index) {
+        return (flags[index] & DESTROYED) != 0;
+    }
+
+    /**
+     * Flags an entity for removal by the next {@link #compact()}
+     */
+    public void destroy(int index) {
+        if ((flags[index] & DESTROYED) == 0) {
+            flags[index] |= DESTROYED;
+            destroyedCount++;
+        }
+    }
+
+    /**
+     * Whether any entity is waiting to be compacted away
+     */
+    public boolean hasDestroyed() {
+        return destroyedCount > 0;
+    }
+
+    /**
+     * Removes destroyed entities, keeping the others in id order. Dense
+     * indices held from before are invalid afterwards; ids stay valid.
+     */
+    public void compact() {
+        if (destroyedCount == 0) {
+            return;
+        }
+
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & DESTROYED) != 0) {
+                indexById[ids[i]] = NO_INDEX;
+                continue;
+            }
+            if (kept != i) {
+                move(i, kept);
+            }
+            kept++;
+        }
+        Arrays.fill(sprites, kept, size, null);
+        size = kept;
+        destroyedCount = 0;
+    }
+
+    public double getX(int index) {
+        return x[index];
+    }
+
+    public double getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * Moves an entity's centre
+     */
+    public void moveTo(int index, double x, double y) {
+        this.x[index] = x;
+        this.y[index] = y;
+    }
+
+    public double getVelocityY(int index) {
+        return velocityY[index];
+    }
+
+    public void setVelocityY(int index, double velocityY) {
+        this.velocityY[index] = velocityY;
+    }
+
+    public Sprite getSprite(int index) {
+        return sprites[index];
+    }
+
+    /**
+     * Changes an entity's sprite, and with it its bounding box
+     */
+    public void setSprite(int index, Sprite sprite) {
+        sprites[index] = sprite;
+        halfWidth[index] = sprite.getWidth() / 2.0;
+        halfHeight[index] = sprite.getHeight() / 2.0;
+    }
+
+    public double getHalfWidth(int index) {
+        return halfWidth[index];
+    }
+
+    public double getHalfHeight(int index) {
+        return halfHeight[index];
+    }
+
+    public double getLeft(int index) {
+        return x[index] - halfWidth[index];
+    }
+
+    public double getRight(int index) {
+        return x[index] + halfWidth[index];
+    }
+
+    public double getTop(int index) {
+        return y[index] - halfHeight[index];
+    }
+
+    public double getBottom(int index) {
+        return y[index] + halfHeight[index];
+    }
+
+    /**
+     * AABB test with margins against another box, the same test as
+     * {@link game.core.GameObject#intersects(double, double, double, double, double, double)}
+     */
+    public boolean intersects(int index, double otherX, double otherY, double otherHalfWidth,
+                              double otherHalfHeight, double xMargin, double yMargin) {
+        intersectTests++;
+        boolean hit = Math.abs(x[index] - otherX) < ((halfWidth[index] - xMargin) + (otherHalfWidth - xMargin))
+                   && Math.abs(y[index] - otherY) < ((halfHeight[index] - yMargin) + (otherHalfHeight - yMargin));
+        if (hit) {
+            intersectHits++;
+        }
+        return hit;
+    }
+
+    /**
+     * Gets how many times {@link #intersects} was called since the store was created
+     */
+    public long getIntersectTests() {
+        return intersectTests;
+    }
+
+    /**
+     * Gets how many calls to {@link #intersects} found an overlap
+     */
+    public long getIntersectHits() {
+        return intersectHits;
+    }
+
+    /**
+     * Gets the legs of an entity's patrol route
+     */
+    public int[] getRoute(int index) {
+        return routeById[ids[index]];
+    }
+
+    public int getRouteIndex(int index) {
+        return routeIndex[index];
+    }
+
+    public void setRouteIndex(int index, int routeIndex) {
+        this.routeIndex[index] = routeIndex;
+    }
+
+    /**
+     * Gets the distance walked along the current leg of the route
+     */
+    public double getWalked(int index) {
+        return walked[index];
+    }
+
+    public void setWalked(int index, double walked) {
+        this.walked[index] = walked;
+    }
+
+    /**
+     * Gets the ticks since the entity last threw
+     */
+    public int getFireCooldown(int index) {
+        return fireCooldown[index];
+    }
+
+    public void setFireCooldown(int index, int fireCooldown) {
+        this.fireCooldown[index] = fireCooldown;
+    }
+
+    /**
+     * Remembers every position as the state before the next tick for render interpolation
+     */
+    public void savePreviousPositions() {
+        System.arraycopy(x, 0, previousX, 0, size);
+        System.arraycopy(y, 0, previousY, 0, size);
+    }
+
+    /**
+     * Gets the x-coordinate blended between the previous and current tick
+     */
+    public double getInterpolatedX(int index, double alpha) {
+        return previousX[index] + (x[index] - previousX[index]) * alpha;
+    }
+
+    /**
+     * Gets the y-coordinate blended between the previous and current tick
+     */
+    public double getInterpolatedY(int index, double alpha) {
+        return previousY[index] + (y[index] - previousY[index]) * alpha;
+    }
+
+    /**
+     * Writes every entity's mutable components for a world snapshot.
+     * Kinds and routes never change after creation and are not included.
+     */
+    public void writeState(ByteBuffer out) {
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            out.putInt(ids[i]).putInt(flags[i]);
+            out.putDouble(x[i]).putDouble(y[i]).putDouble(velocityY[i]);
+            out.putInt(routeIndex[i]).putDouble(walked[i]).putInt(fireCooldown[i]);
+        }
+    }
+
+    /**
+     * Replaces all entities with those written by {@link #writeState} from
+     * a store holding the same created entities. Entities compacted away
+     * since the snapshot come back.
+     *
+     * @throws IllegalArgumentException If the snapshot names an id this store never created
+     */
+    public void readState(ByteBuffer in) {
+        int restored = in.getInt();
+        if (restored > ids.length) {
+            growDense(Math.max(restored, ids.length * 2));
+        }
+
+        Arrays.fill(indexById, 0, idCount, NO_INDEX);
+        Arrays.fill(sprites, null);
+        destroyedCount = 0;
+        for (int i = 0; i < restored; i++) {
+            int id = in.getInt();
+            if (id < 0 || id >= idCount) {
+                throw new IllegalArgumentException("Snapshot holds unknown entity " + id);
+            }
+            EntityKind kind = kindById[id];
+            indexById[id] = i;
+            ids[i] = id;
+            components[i] = kind.getComponents();
+            flags[i] = in.getInt();
+            x[i] = previousX[i] = in.getDouble();
+            y[i] = previousY[i] = in.getDouble();
+            velocityY[i] = in.getDouble();
+            routeIndex[i] = in.getInt();
+            walked[i] = in.getDouble();
+            fireCooldown[i] = in.getInt();
+            setSprite(i, kind.getSprite((flags[i] & FACING_RIGHT) != 0));
+            if ((flags[i] & DESTROYED) != 0) {
+                destroyedCount++;
+            }
+        }
+        size = restored;
+    }
+
+    private void move(int from, int to) {
+        indexById[ids[from]] = to;
+        ids[to] = ids[from];
+        components[to] = components[from];
+        flags[to] = flags[from];
+        x[to] = x[from];
+        y[to] = y[from];
+        previousX[to] = previousX[from];
+        previousY[to] = previousY[from];
+        velocityY[to] = velocityY[from];
+        sprites[to] = sprites[from];
+        halfWidth[to] = halfWidth[from];
+        halfHeight[to] = halfHeight[from];
+        routeIndex[to] = routeIndex[from];
+        walked[to] = walked[from];
+        fireCooldown[to] = fireCooldown[from];
+    }
+
+    private void growIds(int capacity) {
+        kindById = Arrays.copyOf(kindById, capacity);
+        routeById = Arrays.copyOf(routeById, capacity);
+        indexById = Arrays.copyOf(indexById, capacity);
+    }
+
+    private void growDense(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        components = Arrays.copyOf(components, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        velocityY = Arrays.copyOf(velocityY, capacity);
+        sprites = Arrays.copyOf(sprites, capacity);
+        halfWidth = Arrays.copyOf(halfWidth, capacity);
+        halfHeight = Arrays.copyOf(halfHeight, capacity);
+        routeIndex = Arrays.copyOf(routeIndex, capacity);
+        walked = Arrays.copyOf(walked, capacity);
+        fireCooldown = Arrays.copyOf(fireCooldown, capacity);
+    }
+}
@@ -0,0 +1,46 @@
+package game.ecs;
+
+import game.entities.Platform;
+import game.physics.PlatformIndex;
+
+/**
+ * Pulls every entity with {@link EntityStore#GRAVITY} down and lands it on
+ * the platform it falls onto.
+ */
+public final class GravitySystem {
+    private static final double GRAVITY = 0.4;
+    private static final double MAX_FALL_SPEED = 5;
+
+    private final PlatformIndex platforms;
+
+    /**
+     * @param platforms Index of the level's platforms
+     */
+    public GravitySystem(PlatformIndex platforms) {
+        this.platforms = platforms;
+    }
+
+    /**
+     * Advances every falling entity by one tick
+     */
+    public void update(EntityStore store) {
+        for (int i = 0, size = store.size(); i < size; i++) {
+            if (!store.has(i, EntityStore.GRAVITY) || store.isDestroyed(i)) {
+                continue;
+            }
+
+            double velocityY = Math.min(store.getVelocityY(i) + GRAVITY, MAX_FALL_SPEED);
+            store.setVelocityY(i, velocityY);
+            store.moveTo(i, store.getX(i), store.getY(i) + velocityY);
+
+            // Land on a platform reached within one height of the entity
+            double height = store.getHalfHeight(i) * 2;
+            Platform platform = platforms.findSupporting(store.getLeft(i), store.getRight(i),
+                                                         store.getBottom(i), height);
+            if (platform != null) {
+                store.moveTo(i, store.getX(i), platform.getTop() - store.getHalfHeight(i));
+                store.setVelocityY(i, 0);
+            }
+        }
+    }
+}
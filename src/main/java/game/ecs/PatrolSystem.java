@@ -0,0 +1,91 @@
+package game.ecs;
+
+import game.physics.PlatformIndex;
+
+/**
+ * Walks every entity with {@link EntityStore#PATROL} back and forth along
+ * its route. A patrol turns at the end of each leg of the route, at the
+ * screen edges and where its platform ends, and stays snapped to the top
+ * of the platform it walks on.
+ */
+public final class PatrolSystem {
+    private static final double SPEED = 0.5;
+    // How close above a platform a patrol still counts as standing on it
+    private static final double STANDING_TOLERANCE = 5.0;
+
+    private final PlatformIndex platforms;
+    private final double screenWidth;
+
+    /**
+     * @param platforms Index of the level's platforms
+     * @param screenWidth Patrols bounce off x = 0 and x = screenWidth
+     */
+    public PatrolSystem(PlatformIndex platforms, double screenWidth) {
+        this.platforms = platforms;
+        this.screenWidth = screenWidth;
+    }
+
+    /**
+     * Advances every patrol by one tick
+     */
+    public void update(EntityStore store) {
+        for (int i = 0, size = store.size(); i < size; i++) {
+            if (store.has(i, EntityStore.PATROL) && !store.isDestroyed(i)) {
+                step(store, i);
+            }
+        }
+    }
+
+    private void step(EntityStore store, int i) {
+        int[] route = store.getRoute(i);
+
+        // Move
+        double dx = store.is(i, EntityStore.FACING_RIGHT) ? SPEED : -SPEED;
+        store.moveTo(i, store.getX(i) + dx, store.getY(i));
+        store.setWalked(i, store.getWalked(i) + Math.abs(dx));
+
+        // Check if current route segment is done
+        if (store.getWalked(i) >= route[store.getRouteIndex(i)]) {
+            store.setWalked(i, 0);
+            turn(store, i);
+            store.setRouteIndex(i, (store.getRouteIndex(i) + 1) % route.length);
+        }
+
+        // Screen edge bounce, which doesn't advance the route
+        boolean facingRight = store.is(i, EntityStore.FACING_RIGHT);
+        if ((store.getLeft(i) <= 0 && !facingRight) || (store.getRight(i) >= screenWidth && facingRight)) {
+            store.setWalked(i, 0);
+            turn(store, i);
+        }
+
+        if (!isStanding(store, i)) {
+            flipDirection(store, i, route);
+        }
+
+        // Snap to the platform below, turning back if there is none
+        double top = platforms.findTopBelow(store.getLeft(i), store.getRight(i), store.getBottom(i));
+        if (!Double.isNaN(top)) {
+            store.moveTo(i, store.getX(i), top - store.getHalfHeight(i));
+        } else if (!isStanding(store, i)) {
+            flipDirection(store, i, route);
+        }
+    }
+
+    private boolean isStanding(EntityStore store, int i) {
+        return platforms.findSupporting(store.getLeft(i), store.getRight(i), store.getBottom(i),
+                                        STANDING_TOLERANCE) != null;
+    }
+
+    // Starts the next leg of the route walking the other way
+    private static void flipDirection(EntityStore store, int i, int[] route) {
+        store.setWalked(i, 0);
+        store.setRouteIndex(i, (store.getRouteIndex(i) + 1) % route.length);
+        turn(store, i);
+    }
+
+    private static void turn(EntityStore store, int i) {
+        boolean facingRight = !store.is(i, EntityStore.FACING_RIGHT);
+        store.setFlags(i, EntityStore.FACING_RIGHT, facingRight);
+        store.setSprite(i, store.getKind(i).getSprite(facingRight));
+    }
+}
@@ -0,0 +1,39 @@
+package game.ecs;
+
+import game.entities.ProjectilePool;
+
+/**
+ * Lets every entity with {@link EntityStore#THROWER} throw a projectile,
+ * the way it faces, once every fixed number of ticks.
+ */
+public final class ThrowSystem {
+    private static final int FIRE_INTERVAL_FRAMES = 300;
+
+    private final ProjectilePool projectiles;
+
+    /**
+     * @param projectiles Pool thrown projectiles are spawned into, owned by the thrower's id
+     */
+    public ThrowSystem(ProjectilePool projectiles) {
+        this.projectiles = projectiles;
+    }
+
+    /**
+     * Counts down every thrower by one tick and throws for those that are ready
+     */
+    public void update(EntityStore store) {
+        for (int i = 0, size = store.size(); i < size; i++) {
+            if (!store.has(i, EntityStore.THROWER) || store.isDestroyed(i)) {
+                continue;
+            }
+
+            int cooldown = store.getFireCooldown(i) + 1;
+            if (cooldown >= FIRE_INTERVAL_FRAMES) {
+                cooldown = 0;
+                projectiles.spawn(store.getX(i), store.getY(i), store.is(i, EntityStore.FACING_RIGHT),
+                                  store.getId(i));
+            }
+            store.setFireCooldown(i, cooldown);
+        }
+    }
+}
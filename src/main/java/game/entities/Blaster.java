@@ -1,6 +1,7 @@
 package game.entities;
 
 import game.core.GameObject;
+import java.nio.ByteBuffer;
 
 /**
  * Represents a blaster power-up that can be collected by Mario.
@@ -35,13 +36,23 @@ public class Blaster extends GameObject {
     }
 
     /**
-     * Renders the blaster if it hasn't been collected yet.
+     * The blaster is only drawn until it has been collected.
      */
     @Override
-    public void render() {
-        if (!collected) {
-            super.render();
-        }
+    public boolean isVisible() {
+        return !collected;
+    }
+
+    @Override
+    public void writeState(ByteBuffer out) {
+        super.writeState(out);
+        out.put((byte) (collected ? 1 : 0));
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        super.readState(in);
+        collected = in.get() != 0;
     }
 
     private boolean intersects(GameObject other) {
@@ -2,6 +2,7 @@ package game.entities;
 
 import game.core.Config;
 import game.core.GameObject;
+import java.nio.ByteBuffer;
 
 /**
  * Represents Donkey Kong, the main antagonist of the game.
@@ -43,6 +44,18 @@ public class DonkeyKong extends GameObject {
         health = Math.max(0, health - 1);
     }
 
+    @Override
+    public void writeState(ByteBuffer out) {
+        super.writeState(out);
+        out.putInt(health);
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        super.readState(in);
+        health = in.getInt();
+    }
+
     /**
      * Checks if Donkey Kong has been defeated
      * @return true if Donkey Kong's health is 0, false otherwise
@@ -1,8 +1,7 @@
 package game.entities;
 
-import bagel.Image;
-import bagel.util.Point;
 import game.core.GameObject;
+import java.nio.ByteBuffer;
 
 /**
  * Represents a hammer that Mario can pick up and use to defeat Donkey Kong.
@@ -32,13 +31,23 @@ public class Hammer extends GameObject {
     }
 
     /**
-     * Renders the hammer if it hasn't been collected yet
+     * The hammer is only drawn until it has been collected
      */
     @Override
-    public void render() {
-        if (!collected) {
-            super.render();
-        }
+    public boolean isVisible() {
+        return !collected;
+    }
+
+    @Override
+    public void writeState(ByteBuffer out) {
+        super.writeState(out);
+        out.put((byte) (collected ? 1 : 0));
+    }
+
+    @Override
+    public void readState(ByteBuffer in) {
+        super.readState(in);
+        collected = in.get() != 0;
     }
 
     private boolean intersects(GameObject other) {
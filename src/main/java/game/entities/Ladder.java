@@ -1,6 +1,5 @@
 package game.entities;
 
-import bagel.util.Point;
 import game.core.GameObject;
 import java.util.Comparator;
 import java.util.List;
@@ -49,7 +48,7 @@ public class Ladder extends GameObject {
         
         // Connect the ladder to the chosen platform
         double platformTop = getTopOfPlatform(targetPlatform);
-        position = new Point(position.x, platformTop + getImage().getHeight() / 2.0);
+        moveTo(getX(), platformTop + getHeight() / 2.0);
     }
     
     /**
@@ -64,7 +63,7 @@ public class Ladder extends GameObject {
         // Check if the gap between platforms is small enough to prefer the second one
         double nearestTop = getTopOfPlatform(nearest);
         double secondTop = getTopOfPlatform(secondNearest);
-        double ladderHeight = getImage().getHeight();
+        double ladderHeight = getHeight();
         
         // Use second nearest when platforms are close together
         if (Math.abs(secondTop - nearestTop) <= PLATFORM_GAP_FACTOR * ladderHeight) {
@@ -78,37 +77,29 @@ public class Ladder extends GameObject {
      * Gets the top Y coordinate of a platform
      */
     private double getTopOfPlatform(Platform platform) {
-        return platform.getY() - platform.getImage().getHeight() / 2.0;
+        return platform.getY() - platform.getHeight() / 2.0;
     }
     
     /**
      * Checks if this ladder is horizontally aligned with a platform
      */
     private boolean isHorizontallyAligned(Platform platform) {
-        return Math.abs(platform.getX() - position.x) < platform.getImage().getWidth() / 2.0;
+        return Math.abs(platform.getX() - getX()) < platform.getWidth() / 2.0;
     }
     
     /**
      * Checks if a platform is above this ladder
      */
     private boolean isPlatformAbove(Platform platform) {
-        return getTopOfPlatform(platform) < position.y;
+        return getTopOfPlatform(platform) < getY();
     }
     
     /**
      * Calculates the distance from this ladder to the top of a platform
      */
     private double getDistanceToTop(Platform platform) {
-        return position.y - getTopOfPlatform(platform);
+        return getY() - getTopOfPlatform(platform);
     }
-
-    public double getLeft() {
-        return position.x - getImage().getWidth() / 2.0;
-    }
-    
-    public double getRight() {
-        return position.x + getImage().getWidth() / 2.0;
-    }    
 }
 
 
@@ -1,15 +1,20 @@
 package game.entities;
 
-import bagel.util.Point;
-import game.core.Config;
+import game.core.Action;
+import game.core.ConfigSnapshot;
+import game.core.GameInput;
 import game.core.GameObject;
+import game.core.GameSettings;
+import game.core.Sprite;
+import game.ecs.CollisionSystem;
+import game.ecs.EntityStore;
+import game.physics.LadderIndex;
+import game.physics.PlatformIndex;
+import java.nio.ByteBuffer;
 import java.util.List;
-import bagel.Input;
-import bagel.Keys;
-import bagel.Image;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 /**
  * Represents Mario, the main player character.
  */
@@ -27,12 +32,26 @@ public class Mario extends GameObject {
     private final double COLLISION_TOLERANCE;
 
     // Sprite images
-    private static final Image SPRITE_LEFT = new Image("res/mario_left.png");
-    private static final Image SPRITE_RIGHT = new Image("res/mario_right.png");
-    private static final Image HAMMER_RIGHT = new Image("res/mario_hammer_right.png");
-    private static final Image HAMMER_LEFT = new Image("res/mario_hammer_left.png");
-    private static final Image BLASTER_RIGHT = new Image("res/mario_blaster_right.png");
-    private static final Image BLASTER_LEFT = new Image("res/mario_blaster_left.png");
+    private static final Sprite SPRITE_LEFT = Sprite.of("res/mario_left.png");
+    private static final Sprite SPRITE_RIGHT = Sprite.of("res/mario_right.png");
+    private static final Sprite HAMMER_RIGHT = Sprite.of("res/mario_hammer_right.png");
+    private static final Sprite HAMMER_LEFT = Sprite.of("res/mario_hammer_left.png");
+    private static final Sprite BLASTER_RIGHT = Sprite.of("res/mario_blaster_right.png");
+    private static final Sprite BLASTER_LEFT = Sprite.of("res/mario_blaster_left.png");
+    private static final Sprite[] SPRITES = {
+        SPRITE_RIGHT, SPRITE_LEFT, HAMMER_RIGHT, HAMMER_LEFT, BLASTER_RIGHT, BLASTER_LEFT
+    };
+
+    // Snapshot flag bits
+    private static final int FLAG_ON_GROUND = 1;
+    private static final int FLAG_FACING_RIGHT = 1 << 1;
+    private static final int FLAG_HAS_HAMMER = 1 << 2;
+    private static final int FLAG_HAS_BLASTER = 1 << 3;
+    private static final int FLAG_CLIMBING = 1 << 4;
+    private static final int FLAG_CAN_CLIMB = 1 << 5;
+    private static final int FLAG_ON_LADDER = 1 << 6;
+    private static final int FLAG_WAS_IN_AIR = 1 << 7;
+    private static final int FLAG_JUMPED_RECENTLY = 1 << 8;
     
     // Physics state
     private double velocityY = 0;
@@ -42,14 +61,23 @@ public class Mario extends GameObject {
     private int climbingCooldownFrames = 0;
     
     // Game state
-    private List<Platform> platforms;
-    private List<Ladder> ladders = new ArrayList<>();
-    private List<Barrel> barrels = new ArrayList<>();
+    private final GameSettings settings;
+    private PlatformIndex platforms;
+    private LadderIndex ladders = new LadderIndex(Collections.emptyList());
+
+    // Memoised findBestLadder result, reused while its inputs are unchanged
+    private LadderIndex cachedLadderIndex;
+    private double cachedLadderX;
+    private double cachedLadderY;
+    private Sprite cachedLadderSprite;
+    private boolean cachedLadderOnGround;
+    private int cachedLadderInput;
+    private Ladder cachedBestLadder;
     private boolean hasHammer = false;
     private int destroyedBarrels = 0;
     private int jumpedBarrels = 0;
     private double prevBottomY = 0;  // Initialize to prevent first-frame issues
-    private Set<Barrel> jumpedThisJump = new HashSet<>(); // Track barrels jumped in current jump
+    private final BitSet jumpedThisJump = new BitSet(); // Ids of barrels jumped in current jump
     private boolean hasBlaster = false;
     private int bulletCount = 0;
 
@@ -69,20 +97,115 @@ public class Mario extends GameObject {
     private Ladder lastUsedLadder = null;
     private static final double LADDER_SCORING_EXCLUSION_ZONE = 20.0; 
 
+    // Jump scoring only considers barrels within this distance of Mario's centre
+    private static final double JUMP_SCORE_X_RANGE = 25;
+    private static final double JUMP_SCORE_Y_RANGE = 70;
+    private int[] scoringCandidates = new int[8];
+    private int candidateCount = 0;
+    private EntityStore scoringEntities;
+    private final CollisionSystem.OverlapVisitor addScoringCandidate = this::addScoringCandidate;
+
     private int finalScore = 0;
     private int totalScore = 0;
 
     /**
      * Creates a new Mario instance at the specified position
      */
-    public Mario(double x, double y, List<Platform> platforms) {
+    public Mario(double x, double y, PlatformIndex platforms, ConfigSnapshot config) {
         super("res/mario_right.png", x, y);
         this.platforms = platforms;
-        
-        PLATFORM_BUFFER = getImage().getHeight() * 0.1; 
-        COLLISION_TOLERANCE = getImage().getWidth() * 0.05; 
-        
-        this.prevBottomY = position.y + getImage().getHeight() / 2.0;
+        this.settings = config.getSettings();
+        
+        PLATFORM_BUFFER = getHeight() * 0.1; 
+        COLLISION_TOLERANCE = getWidth() * 0.05; 
+        
+        this.prevBottomY = getBottom();
+    }
+
+    /**
+     * Writes Mario's state for a world snapshot. Ladders are stored as
+     * indices into the world's list and barrels by their entity ids.
+     */
+    public void writeState(ByteBuffer out, List<Ladder> ladders) {
+        super.writeState(out);
+        out.putDouble(velocityX).putDouble(velocityY);
+        out.putDouble(prevBottomY).putDouble(jumpStartX);
+        out.putInt(climbingCooldownFrames).putInt(jumpRecentCounter);
+        out.putInt(destroyedBarrels).putInt(jumpedBarrels);
+        out.putInt(bulletCount).putInt(finalScore).putInt(totalScore);
+        out.putInt(flags());
+        out.put((byte) spriteIndex());
+        out.putInt(lastUsedLadder == null ? -1 : ladders.indexOf(lastUsedLadder));
+
+        out.putInt(jumpedThisJump.cardinality());
+        for (int id = jumpedThisJump.nextSetBit(0); id >= 0; id = jumpedThisJump.nextSetBit(id + 1)) {
+            out.putInt(id);
+        }
+    }
+
+    /**
+     * Restores state written by {@link #writeState(ByteBuffer, List)}
+     * against the same world's ladders and entities
+     */
+    public void readState(ByteBuffer in, List<Ladder> ladders) {
+        super.readState(in);
+        cachedLadderIndex = null;
+        velocityX = in.getDouble();
+        velocityY = in.getDouble();
+        prevBottomY = in.getDouble();
+        jumpStartX = in.getDouble();
+        climbingCooldownFrames = in.getInt();
+        jumpRecentCounter = in.getInt();
+        destroyedBarrels = in.getInt();
+        jumpedBarrels = in.getInt();
+        bulletCount = in.getInt();
+        finalScore = in.getInt();
+        totalScore = in.getInt();
+        setFlags(in.getInt());
+        setSprite(SPRITES[in.get()]);
+        int ladderIndex = in.getInt();
+        lastUsedLadder = ladderIndex < 0 ? null : ladders.get(ladderIndex);
+
+        jumpedThisJump.clear();
+        for (int i = in.getInt(); i > 0; i--) {
+            jumpedThisJump.set(in.getInt());
+        }
+    }
+
+    private int flags() {
+        int flags = 0;
+        if (onGround) flags |= FLAG_ON_GROUND;
+        if (facingRight) flags |= FLAG_FACING_RIGHT;
+        if (hasHammer) flags |= FLAG_HAS_HAMMER;
+        if (hasBlaster) flags |= FLAG_HAS_BLASTER;
+        if (isClimbing) flags |= FLAG_CLIMBING;
+        if (canClimb) flags |= FLAG_CAN_CLIMB;
+        if (isOnLadder) flags |= FLAG_ON_LADDER;
+        if (wasInAir) flags |= FLAG_WAS_IN_AIR;
+        if (jumpedRecently) flags |= FLAG_JUMPED_RECENTLY;
+        return flags;
+    }
+
+    private void setFlags(int flags) {
+        onGround = (flags & FLAG_ON_GROUND) != 0;
+        facingRight = (flags & FLAG_FACING_RIGHT) != 0;
+        hasHammer = (flags & FLAG_HAS_HAMMER) != 0;
+        hasBlaster = (flags & FLAG_HAS_BLASTER) != 0;
+        isClimbing = (flags & FLAG_CLIMBING) != 0;
+        canClimb = (flags & FLAG_CAN_CLIMB) != 0;
+        isOnLadder = (flags & FLAG_ON_LADDER) != 0;
+        wasInAir = (flags & FLAG_WAS_IN_AIR) != 0;
+        jumpedRecently = (flags & FLAG_JUMPED_RECENTLY) != 0;
+    }
+
+    // The sprite is stored rather than derived: it only changes in update()
+    private int spriteIndex() {
+        for (int i = 0; i < SPRITES.length; i++) {
+            if (SPRITES[i] == getSprite()) {
+                return i;
+            }
+        }
+        return 0;
     }
 
     /**
@@ -121,20 +244,32 @@ public class Mario extends GameObject {
         return bulletCount <= 0;
     }
     
-    public Bullet tryShoot() {
+    /**
+     * Uses up one bullet if Mario holds a loaded blaster
+     *
+     * @return true if a bullet was fired
+     */
+    public boolean tryShoot() {
         if (hasBlaster && bulletCount > 0) {
             bulletCount--;
             if (bulletCount == 0) {
                 hasBlaster = false;
             }
-            return new Bullet(getX(), getY(), facingRight);
+            return true;
         }
-        return null;
+        return false;
+    }
+
+    /**
+     * Returns whether Mario is facing right, which is also the way his bullets fly
+     */
+    public boolean isFacingRight() {
+        return facingRight;
     }    
 
     @Override
-    public void update(Input input) {
-        double currentBottom = position.y + getImage().getHeight() / 2.0;
+    public void update(GameInput input) {
+        double currentBottom = getBottom();
 
         wasInAir = !onGround;  
         
@@ -185,9 +320,9 @@ public class Mario extends GameObject {
     /**
      * Processes keyboard input for Mario's movement
      */
-    private void handleInput(Input input) {
-        boolean left = input.isDown(Keys.LEFT);
-        boolean right = input.isDown(Keys.RIGHT);
+    private void handleInput(GameInput input) {
+        boolean left = input.has(Action.LEFT);
+        boolean right = input.has(Action.RIGHT);
     
         // Horizontal movement
         if (left && !right) {
@@ -201,12 +336,12 @@ public class Mario extends GameObject {
         }
     
         // Jumping
-        if (input.wasPressed(Keys.SPACE) && onGround) {
+        if (input.has(Action.JUMP) && onGround) {
             velocityY = JUMP_VELOCITY;
             onGround = false;
             jumpedRecently = true;
             jumpRecentCounter = JUMP_RECENT_FRAMES;
-            jumpStartX = position.x;
+            jumpStartX = getX();
             jumpedThisJump.clear();
         }
     }
@@ -224,20 +359,20 @@ public class Mario extends GameObject {
      * Applies vertical movement
      */
     private void moveVertically() {
-        position = new Point(position.x, position.y + velocityY);
+        moveTo(getX(), getY() + velocityY);
     }
 
     /**
      * Applies horizontal movement with screen boundary checks
      */
     private void moveHorizontally() {
-        double newX = position.x + velocityX;
-        double halfWidth = getImage().getWidth() / 2.0;
-        double screenWidth = Config.getAppInt("window.width");
+        double newX = getX() + velocityX;
+        double halfWidth = getWidth() / 2.0;
+        double screenWidth = settings.getWindowWidth();
     
         newX = Math.max(halfWidth, Math.min(newX, screenWidth - halfWidth));
         
-        position = new Point(newX, position.y);
+        moveTo(newX, getY());
     }    
 
     /**
@@ -246,18 +381,18 @@ public class Mario extends GameObject {
     private void updateSprite() {
         // Determine sprite based on power-ups, with blaster taking priority over hammer
         if (hasBlaster && bulletCount > 0) {
-            image = facingRight ? BLASTER_RIGHT : BLASTER_LEFT;
+            setSprite(facingRight ? BLASTER_RIGHT : BLASTER_LEFT);
         } else if (hasHammer) {
-            image = facingRight ? HAMMER_RIGHT : HAMMER_LEFT;
+            setSprite(facingRight ? HAMMER_RIGHT : HAMMER_LEFT);
         } else {
-            image = facingRight ? SPRITE_RIGHT : SPRITE_LEFT;
+            setSprite(facingRight ? SPRITE_RIGHT : SPRITE_LEFT);
         }
     }
 
     /**
      * Checks and handles collisions with platforms
      */
-    public void checkPlatformCollision(List<Platform> platforms) {
+    public void checkPlatformCollision(PlatformIndex platforms) {
         this.platforms = platforms;
 
         if (isClimbing) {
@@ -266,11 +401,9 @@ public class Mario extends GameObject {
 
         onGround = false;
 
-        for (Platform platform : platforms) {
-            if (isStandingOn(platform)) {
-                snapToTopOfPlatform(platform);
-                break;
-            }
+        Platform platform = findStandingPlatform();
+        if (platform != null) {
+            snapToTopOfPlatform(platform);
         }
 
         checkFallBelowScreen();
@@ -280,10 +413,10 @@ public class Mario extends GameObject {
      * Snaps Mario to the top of a platform
      */
     private void snapToTopOfPlatform(Platform platform) {
-        double platformTop = platform.getY() - platform.getImage().getHeight() / 2.0;
-        double marioHalfHeight = getImage().getHeight() / 2.0;
+        double platformTop = platform.getY() - platform.getHeight() / 2.0;
+        double marioHalfHeight = getHeight() / 2.0;
         
-        position = new Point(position.x, platformTop - marioHalfHeight);
+        moveTo(getX(), platformTop - marioHalfHeight);
         velocityY = 0;
         onGround = true;
         
@@ -297,86 +430,89 @@ public class Mario extends GameObject {
      * Gets the bottom Y coordinate of Mario
      */
     public double getBottomY() {
-        return position.y + getImage().getHeight() / 2.0;
+        return getBottom();
     }
 
     /**
-     * Awards points for jumping over barrels
+     * Awards points for jumping over barrels. Only the barrels Mario is
+     * aligned with can score, so they are found with a grid query rather
+     * than by scanning every barrel, and nothing is allocated.
+     *
+     * @param barrels Broadphase over the level's entities, in step with their positions
      */
-    public void awardJumpPoints(List<Barrel> barrels, double oldBottomY) {
-        if (barrels == null || barrels.isEmpty()) return;
-        
+    public void awardJumpPoints(CollisionSystem barrels, double oldBottomY) {
         // Skip scoring if any of these early exit conditions are met
         if (shouldSkipJumpScoring()) {
             return;
         }
         
-        double currentBottom = position.y + getImage().getHeight()/2;
-        double horizontalMovementSinceJump = Math.abs(position.x - jumpStartX);
-        boolean hasMovedHorizontallyEnough = horizontalMovementSinceJump > 1.5;
-        
-        // These counters were in the original code but not currently used elsewhere
-        // Keeping them for compatibility
-        int barrelsInRange = 0;
-        int barrelsNearMissing = 0;
+        double currentBottom = getBottom();
+        boolean hasMovedHorizontallyEnough = Math.abs(getX() - jumpStartX) > 1.5;
+        boolean hasSignificantVerticalMovement = Math.abs(currentBottom - oldBottomY) >= 0.5;
+        boolean movedDownward = currentBottom >= oldBottomY - 2;
+        if (!hasMovedHorizontallyEnough || !hasSignificantVerticalMovement || !movedDownward) {
+            return;
+        }
         
-        // Sort barrels by proximity to Mario for consistent processing
-        List<Barrel> sortedBarrels = getSortedBarrelsByProximity(barrels);
+        // Gather the aligned barrels, nearest first for consistent processing
+        scoringEntities = barrels.getEntities();
+        candidateCount = 0;
+        barrels.forEachNear(EntityStore.BARREL,
+                            getX() - JUMP_SCORE_X_RANGE, getY() - JUMP_SCORE_Y_RANGE,
+                            getX() + JUMP_SCORE_X_RANGE, getY() + JUMP_SCORE_Y_RANGE,
+                            addScoringCandidate);
         
-        // Process barrels for scoring
-        for (Barrel barrel : sortedBarrels) {
-            // Skip barrels that are already destroyed or already jumped over
-            if (barrel.isDestroyed() || jumpedThisJump.contains(barrel)) {
-                continue;
-            }
+        EntityStore entities = scoringEntities;
+        for (int k = 0; k < candidateCount; k++) {
+            int barrel = scoringCandidates[k];
 
-            // Skip barrels not on the same vertical layer as Mario
-            if (!isOnSameVerticalLayer(barrel)) {
+            // Skip barrels already jumped over or scored, and those by a recently used ladder
+            if (jumpedThisJump.get(entities.getId(barrel)) || entities.is(barrel, EntityStore.SCORED)
+                    || isBarrelNearRecentLadder(entities, barrel)) {
                 continue;
             }
             
-            // Check if barrel is near a ladder that was recently used
-            boolean nearRecentLadder = isBarrelNearRecentLadder(barrel);
-            
-            // Calculate position relationships between Mario and barrel
-            PositionRelationship rel = getPositionRelationship(barrel, currentBottom, oldBottomY);
+            double barrelTop = entities.getTop(barrel);
+            double barrelBottom = entities.getBottom(barrel);
+            boolean wasAbove = oldBottomY < barrelTop + 8;
+            boolean verticallyAboveEnough = currentBottom < barrelBottom - 3;
             
             // Don't allow scoring when standing still on same level as barrel
-            boolean validJumpingState = (!onGround || !rel.isOnSamePlatformAsBarrel) && 
-                                      rel.hasSignificantVerticalMovement;
-            
-            // Count barrels that are candidates for scoring (in proper range)
-            if (rel.horizontallyAligned && rel.verticallyAligned) {
-                barrelsInRange++;
-
-                boolean almostScored = rel.horizontallyAligned && 
-                               (rel.wasAbove || rel.verticallyAboveEnough) && 
-                               rel.movedDownward && 
-                               validJumpingState && 
-                               !nearRecentLadder && 
-                               barrel.canBeScoredAgain();
-                               
-                if (almostScored) {
-                    barrelsNearMissing++;
-                }
-            }
-            
-            // Determine if this jump should score points
-            if ((rel.wasAbove || rel.verticallyAboveEnough) && 
-                rel.movedDownward && 
-                rel.horizontallyAligned && 
-                validJumpingState && 
-                barrel.canBeScoredAgain() && 
-                !nearRecentLadder &&
-                hasMovedHorizontallyEnough) {
-                
+            boolean onSamePlatformAsBarrel = Math.abs(currentBottom - barrelBottom) < 40;
+            if ((wasAbove || verticallyAboveEnough) && (!onGround || !onSamePlatformAsBarrel)) {
                 jumpedBarrels++;
-                barrel.markScored();
-                jumpedThisJump.add(barrel);
+                entities.setFlags(barrel, EntityStore.SCORED, true);
+                jumpedThisJump.set(entities.getId(barrel));
                 break;
             }
         }
     }
+
+    /**
+     * Adds a barrel found near Mario to the scoring candidates if he is
+     * aligned with it, keeping them sorted by horizontal distance with ties
+     * in id order
+     */
+    private boolean addScoringCandidate(int barrel) {
+        EntityStore entities = scoringEntities;
+        double distance = Math.abs(getX() - entities.getX(barrel));
+        if (distance > JUMP_SCORE_X_RANGE || Math.abs(getY() - entities.getY(barrel)) > JUMP_SCORE_Y_RANGE) {
+            return false;
+        }
+        
+        if (candidateCount == scoringCandidates.length) {
+            scoringCandidates = Arrays.copyOf(scoringCandidates, candidateCount * 2);
+        }
+        
+        // Insertion sort; candidates arrive in id order, so it is stable
+        int slot = candidateCount++;
+        while (slot > 0 && Math.abs(getX() - entities.getX(scoringCandidates[slot - 1])) > distance) {
+            scoringCandidates[slot] = scoringCandidates[slot - 1];
+            slot--;
+        }
+        scoringCandidates[slot] = barrel;
+        return false;
+    }
     
     /**
      * Checks if jump scoring should be skipped based on various conditions
@@ -395,35 +531,13 @@ public class Mario extends GameObject {
         return false;
     }
     
-    /**
-     * Returns barrels sorted by proximity to Mario
-     */
-    private List<Barrel> getSortedBarrelsByProximity(List<Barrel> barrels) {
-        List<Barrel> sortedBarrels = new ArrayList<>(barrels);
-        sortedBarrels.sort((b1, b2) -> {
-            double d1 = Math.abs(position.x - b1.getX());
-            double d2 = Math.abs(position.x - b2.getX());
-            return Double.compare(d1, d2);
-        });
-        return sortedBarrels;
-    }
-    
-    /**
-     * Checks if a barrel is on the same vertical layer as Mario
-     */
-    private boolean isOnSameVerticalLayer(Barrel barrel) {
-        double marioCenterY = position.y;
-        double barrelCenterY = barrel.getY();
-        return Math.abs(marioCenterY - barrelCenterY) <= 70;
-    }
-    
     /**
      * Checks if a barrel is near a ladder that was recently used
      */
-    private boolean isBarrelNearRecentLadder(Barrel barrel) {
+    private boolean isBarrelNearRecentLadder(EntityStore entities, int barrel) {
         if (lastUsedLadder != null) {
             double ladderX = lastUsedLadder.getX();
-            double barrelX = barrel.getX();
+            double barrelX = entities.getX(barrel);
             double horizontalDistance = Math.abs(ladderX - barrelX);
             
             return horizontalDistance < LADDER_SCORING_EXCLUSION_ZONE;
@@ -431,90 +545,51 @@ public class Mario extends GameObject {
         return false;
     }
     
-    /**
-     * Class to store position relationships between Mario and a barrel
-     */
-    private class PositionRelationship {
-        boolean isOnSamePlatformAsBarrel;
-        boolean hasSignificantVerticalMovement;
-        boolean wasAbove;
-        boolean movedDownward;
-        boolean horizontallyAligned;
-        boolean verticallyAligned;
-        boolean verticallyAboveEnough;
-    }
-    
-    /**
-     * Calculates position relationships between Mario and a barrel
-     */
-    private PositionRelationship getPositionRelationship(Barrel barrel, double currentBottom, double oldBottomY) {
-        PositionRelationship rel = new PositionRelationship();
-        
-        double barrelTop = barrel.getY() - barrel.getImage().getHeight()/2;
-        double barrelBottom = barrel.getY() + barrel.getImage().getHeight()/2;
-        
-        rel.isOnSamePlatformAsBarrel = Math.abs(currentBottom - barrelBottom) < 40;
-        rel.hasSignificantVerticalMovement = Math.abs(currentBottom - oldBottomY) >= 0.5;
-        rel.wasAbove = oldBottomY < barrelTop + 8;
-        rel.movedDownward = currentBottom >= oldBottomY - 2;
-        rel.horizontallyAligned = Math.abs(position.x - barrel.getX()) <= 25;
-        rel.verticallyAligned = Math.abs(currentBottom - barrelTop) <= 20;
-        rel.verticallyAboveEnough = currentBottom < barrelBottom - 3;
-        
-        return rel;
-    }
-    
     /**
      * Handles the case where Mario falls below the screen
      */
     private void checkFallBelowScreen() {
-        double screenBottom = Config.getAppInt("window.height");
+        double screenBottom = settings.getWindowHeight();
         
-        if (position.y > screenBottom + 200) {
-            Platform lowest = platforms.stream()
-                .max((p1, p2) -> Double.compare(p1.getY(), p2.getY()))
-                .orElse(platforms.get(0));
+        if (getY() > screenBottom + 200) {
+            Platform lowest = platforms.getLowest();
             
-            position = new Point(lowest.getX(), lowest.getY() - getImage().getHeight() / 2.0);
+            moveTo(lowest.getX(), lowest.getY() - getHeight() / 2.0);
             velocityY = 0;
             onGround = true;
         }
     }
 
     /**
-     * Determines if Mario is standing on a platform
+     * Finds the platform Mario is standing on: the first one he overlaps
+     * horizontally with his feet within the platform buffer of its top,
+     * as long as he isn't moving upward
+     *
+     * @return The platform, or null if Mario isn't standing on one
      */
-    private boolean isStandingOn(Platform platform) {
-        double marioBottom = position.y + getImage().getHeight() / 2.0;
-        double platformTop = platform.getY() - platform.getImage().getHeight() / 2.0;
-        
-        // Calculate horizontal bounds
-        double marioLeft = position.x - getImage().getWidth() / 2.0;
-        double marioRight = position.x + getImage().getWidth() / 2.0;
-        double platformLeft = platform.getX() - platform.getImage().getWidth() / 2.0;
-        double platformRight = platform.getX() + platform.getImage().getWidth() / 2.0;
-    
-        // Check alignment conditions
-        boolean horizontallyAligned = marioRight > platformLeft && marioLeft < platformRight;
-        boolean verticallyAligned = Math.abs(marioBottom - platformTop) <= PLATFORM_BUFFER;
+    private Platform findStandingPlatform() {
         boolean movingDownward = velocityY >= 0;
-    
-        return movingDownward && horizontallyAligned && verticallyAligned;
+        if (!movingDownward) {
+            return null;
+        }
+
+        // The index tolerance is exclusive, the buffer is inclusive
+        return findSupportingPlatform(platforms, Math.nextUp(PLATFORM_BUFFER));
     }
 
     /**
      * Checks for collisions with barrels and handles appropriate actions
      */
-    public void checkBarrelCollisions(List<Barrel> barrels) {
-        this.barrels = barrels;
-        
-        for (Barrel barrel : barrels) {
-            if (intersects(barrel)) {
-                if (hasHammer && !barrel.isDestroyed()) {
-                    barrel.destroy();
-                    destroyedBarrels++;
-                } else if (!hasHammer) {
-                }
+    public void checkBarrelCollisions(EntityStore entities) {
+        if (!hasHammer) {
+            return;
+        }
+
+        for (int i = 0; i < entities.size(); i++) {
+            if (entities.has(i, EntityStore.BARREL) && !entities.isDestroyed(i)
+                    && entities.intersects(i, getX(), getY(), getHalfWidth(), getHalfHeight(), 2.0, 2.0)) {
+                entities.destroy(i);
+                destroyedBarrels++;
             }
         }
     }
@@ -552,7 +627,7 @@ public class Mario extends GameObject {
      * Gets center X position of Mario
      */
     public double getCenter() {
-        return position.x;
+        return getX();
     }    
 
     /**
@@ -569,7 +644,7 @@ public class Mario extends GameObject {
      * Checks if Mario is near ladders to enable climbing
      * Uses precise collision detection with horizontal alignment
      */
-    public void checkLadderCollisions(List<Ladder> ladders, Input input) {
+    public void checkLadderCollisions(LadderIndex ladders, GameInput input) {
         this.ladders = ladders;
         boolean canClimb = false;
         isOnLadder = false;
@@ -585,13 +660,24 @@ public class Mario extends GameObject {
     }
     
     /**
-     * Find the best ladder for Mario to interact with based on position and input
+     * Find the best ladder for Mario to interact with based on position and input.
+     * Within a tick this is asked several times, usually with nothing changed
+     * in between, so the last answer is kept until Mario moves, changes sprite,
+     * lands or leaves the ground, or the input differs.
      */
-    private Ladder findBestLadder(Input input) {
+    private Ladder findBestLadder(GameInput input) {
+        if (cachedLadderIndex == ladders && cachedLadderX == getX() && cachedLadderY == getY()
+                && cachedLadderSprite == getSprite() && cachedLadderOnGround == onGround
+                && cachedLadderInput == input.getBits()) {
+            return cachedBestLadder;
+        }
+
         Ladder bestLadder = null;
         double bestScore = Double.MAX_VALUE;
         
-        for (Ladder ladder : ladders) {
+        List<Ladder> candidates = ladders.getCandidates(getCenter());
+        for (int i = 0; i < candidates.size(); i++) {
+            Ladder ladder = candidates.get(i);
             double score = getLadderScore(ladder, input);
             
             if (score < bestScore) {
@@ -600,17 +686,24 @@ public class Mario extends GameObject {
             }
         }
         
-        return (bestScore < 100) ? bestLadder : null;
+        cachedLadderIndex = ladders;
+        cachedLadderX = getX();
+        cachedLadderY = getY();
+        cachedLadderSprite = getSprite();
+        cachedLadderOnGround = onGround;
+        cachedLadderInput = input.getBits();
+        cachedBestLadder = (bestScore < 100) ? bestLadder : null;
+        return cachedBestLadder;
     }
     
     /**
      * Calculate a score for a ladder based on Mario's position and input
      * Lower scores mean better matches
      */
-    private double getLadderScore(Ladder ladder, Input input) {
-        double marioBottom = position.y + getImage().getHeight() / 2.0;
-        double ladderTop = ladder.getY() - ladder.getImage().getHeight() / 2.0;
-        double ladderBottom = ladder.getY() + ladder.getImage().getHeight() / 2.0;
+    private double getLadderScore(Ladder ladder, GameInput input) {
+        double marioBottom = getBottom();
+        double ladderTop = ladder.getY() - ladder.getHeight() / 2.0;
+        double ladderBottom = ladder.getY() + ladder.getHeight() / 2.0;
         
         // Check horizontal alignment first - if not aligned, very high score
         boolean horizontallyAligned = getCenter() >= ladder.getLeft() && 
@@ -626,12 +719,12 @@ public class Mario extends GameObject {
         boolean onLadder = intersects(ladder);
         
         // Calculate score based on position and input
-        if (input.isDown(Keys.UP)) {
+        if (input.has(Action.UP)) {
             if (atBottomOfLadder) return 10;
             if (onLadder) return 20;
             return 100;
         } 
-        else if (input.isDown(Keys.DOWN)) {
+        else if (input.has(Action.DOWN)) {
             if (atTopOfLadder) return 10;
             if (onLadder) return 20;
             return 100;
@@ -642,7 +735,7 @@ public class Mario extends GameObject {
         }
     }
 
-    public void climb(Input input, List<Ladder> ladders) {
+    public void climb(GameInput input, LadderIndex ladders) {
         boolean wasClimbing = isClimbing;
         
         if (!canClimb) {
@@ -664,70 +757,69 @@ public class Mario extends GameObject {
             climbingCooldownFrames = 10;
         }
         
-        double marioTop = position.y - getImage().getHeight() / 2.0;
-        double marioBottom = position.y + getImage().getHeight() / 2.0;
-        double ladderTop = bestLadder.getY() - bestLadder.getImage().getHeight() / 2.0;
-        double ladderBottom = bestLadder.getY() + bestLadder.getImage().getHeight() / 2.0;
+        double marioTop = getTop();
+        double marioBottom = getBottom();
+        double ladderTop = bestLadder.getY() - bestLadder.getHeight() / 2.0;
+        double ladderBottom = bestLadder.getY() + bestLadder.getHeight() / 2.0;
         
         boolean atBottomOfLadder = Math.abs(marioBottom - ladderBottom) < LADDER_DETECT_TOLERANCE;
         boolean atTopOfLadder = Math.abs(marioBottom - ladderTop) < LADDER_DETECT_TOLERANCE && onGround;
         boolean onLadder = intersects(bestLadder);
         
-        if (input.isDown(Keys.DOWN) && marioBottom > ladderBottom - 1.0) {
+        if (input.has(Action.DOWN) && marioBottom > ladderBottom - 1.0) {
             isClimbing = false;
             velocityY = 0;
             return;
         }
         
         // Handle climbing up
-        if (input.isDown(Keys.UP) && (atBottomOfLadder || onLadder)) {
+        if (input.has(Action.UP) && (atBottomOfLadder || onLadder)) {
             isClimbing = true;
             velocityY = -CLIMB_SPEED;
-            position = new Point(bestLadder.getX(), position.y);
+            moveTo(bestLadder.getX(), getY());
             return;
         }
         
         // Handle climbing down
-        if (input.isDown(Keys.DOWN)) {
+        if (input.has(Action.DOWN)) {
             if (atTopOfLadder) {
                 isClimbing = true;
                 onGround = false;  
                 velocityY = CLIMB_SPEED;
-                position = new Point(bestLadder.getX(), ladderTop + 1.0);
+                moveTo(bestLadder.getX(), ladderTop + 1.0);
                 return;
             }
             else if (onLadder) {
                 isClimbing = true;
                 velocityY = CLIMB_SPEED;
-                position = new Point(bestLadder.getX(), position.y);
+                moveTo(bestLadder.getX(), getY());
                 return;
             }
         }
         
-        if (isClimbing && (input.isDown(Keys.LEFT) || input.isDown(Keys.RIGHT))) {
+        if (isClimbing && (input.has(Action.LEFT) || input.has(Action.RIGHT))) {
             isClimbing = false;
             return;
         }
 
-        if (onLadder && isClimbing && !input.isDown(Keys.UP) && !input.isDown(Keys.DOWN)) {
+        if (onLadder && isClimbing && !input.has(Action.UP) && !input.has(Action.DOWN)) {
             velocityY = 0;
-            position = new Point(bestLadder.getX(), position.y);
+            moveTo(bestLadder.getX(), getY());
             return;
         }
         
         if (isClimbing && velocityY > 0) {
-            for (Platform platform : platforms) {
-                if (isStandingOn(platform)) {
-                    snapToTopOfPlatform(platform);
-                    isClimbing = false;
-                    return;
-                }
+            Platform platform = findStandingPlatform();
+            if (platform != null) {
+                snapToTopOfPlatform(platform);
+                isClimbing = false;
+                return;
             }
         }
         
         if (isClimbing) {
             boolean stillOnLadder = false;
-            for (Ladder ladder : ladders) {
+            for (Ladder ladder : ladders.getCandidates(getCenter())) {
                 boolean aligned = getCenter() >= ladder.getLeft() && getCenter() <= ladder.getRight();
                 boolean touching = intersects(ladder);
                 if (aligned && touching) {
@@ -739,11 +831,9 @@ public class Mario extends GameObject {
             if (!stillOnLadder) {
                 isClimbing = false;
             
-                for (Platform platform : platforms) {
-                    if (isStandingOn(platform)) {
-                        snapToTopOfPlatform(platform);
-                        break;
-                    }
+                Platform platform = findStandingPlatform();
+                if (platform != null) {
+                    snapToTopOfPlatform(platform);
                 }
             
                 if (!jumpedThisJump.isEmpty()) {
@@ -777,13 +867,14 @@ public class Mario extends GameObject {
      * Now checks both horizontal proximity and vertical alignment
      */
     private boolean isNearAnyLadder() {
-        for (Ladder ladder : ladders) {
-            double horizontalDistance = Math.abs(position.x - ladder.getX());
+        // The exclusion zone is half a ladder's width, so the column under Mario holds every match
+        for (Ladder ladder : ladders.getCandidates(getX())) {
+            double horizontalDistance = Math.abs(getX() - ladder.getX());
             
             if (horizontalDistance < LADDER_SCORING_EXCLUSION_ZONE) {
-                double marioBottom = position.y + getImage().getHeight() / 2.0;
-                double ladderTop = ladder.getY() - ladder.getImage().getHeight() / 2.0;
-                double ladderBottom = ladder.getY() + ladder.getImage().getHeight() / 2.0;
+                double marioBottom = getBottom();
+                double ladderTop = ladder.getY() - ladder.getHeight() / 2.0;
+                double ladderBottom = ladder.getY() + ladder.getHeight() / 2.0;
                 
                 if (marioBottom >= ladderTop - 10 && marioBottom <= ladderBottom + 10) {
                     return true;
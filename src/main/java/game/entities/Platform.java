@@ -16,33 +16,19 @@ public class Platform extends GameObject {
         super("res/platform.png", x, y); 
     }
 
-    /**
-     * Gets the height of the platform image
-     */
-    public double getHeight() {
-        return image.getHeight();
-    }
-    
-    /**
-     * Gets the width of the platform image
-     */
-    public double getWidth() {
-        return image.getWidth();
-    }
-    
     /**
      * Gets the top Y-coordinate of the platform
      */
     public double getTopY() {
-        return position.y - image.getHeight() / 2.0;
+        return getTop();
     }
     
     /**
      * Checks if a point is above this platform
      */
     public boolean isPointAbove(double x, double y) {
-        double left = position.x - image.getWidth() / 2.0;
-        double right = position.x + image.getWidth() / 2.0;
+        double left = getLeft();
+        double right = getRight();
         
         return x >= left && x <= right && y < getTopY();
     }
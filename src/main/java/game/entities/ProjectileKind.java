@@ -0,0 +1,43 @@
+package game.entities;
+
+import game.core.Sprite;
+
+/**
+ * The kinds of projectile in the game and their fixed properties.
+ */
+public enum ProjectileKind {
+    /** Fired by Mario's blaster; destroys monkeys and damages Donkey Kong */
+    BULLET("res/bullet_right.png", "res/bullet_left.png", 3.8),
+    /** Thrown by intelligent monkeys; touching one loses the level */
+    BANANA("res/banana.png", "res/banana.png", 1.8);
+
+    private static final double MAX_DISTANCE = 300;
+
+    private final Sprite spriteRight;
+    private final Sprite spriteLeft;
+    private final double speed;
+
+    ProjectileKind(String rightImage, String leftImage, double speed) {
+        this.spriteRight = Sprite.of(rightImage);
+        this.spriteLeft = Sprite.of(leftImage);
+        this.speed = speed;
+    }
+
+    /**
+     * Gets the sprite for a projectile moving with the given velocity
+     */
+    public Sprite getSprite(double velocity) {
+        return velocity > 0 ? spriteRight : spriteLeft;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Gets how far a projectile flies before it despawns
+     */
+    public double getMaxDistance() {
+        return MAX_DISTANCE;
+    }
+}
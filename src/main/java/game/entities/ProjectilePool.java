@@ -0,0 +1,269 @@
+package game.entities;
+
+import game.core.GameObject;
+import game.core.Sprite;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * All live projectiles of one kind, stored as parallel primitive arrays.
+ * Spawning reuses preallocated slots and despawned projectiles are dropped
+ * by compacting the arrays during the update pass, so a level with hundreds
+ * of projectiles in flight allocates nothing per tick. Survivors keep their
+ * spawn order, which decides which projectile claims a target first.
+ */
+public final class ProjectilePool {
+    /** Owner id of projectiles fired by the player */
+    public static final int OWNER_PLAYER = -1;
+
+    /**
+     * Decides whether a projectile that has just moved hit something
+     */
+    @FunctionalInterface
+    public interface HitTest {
+        /**
+         * @return true if the projectile is used up and should despawn
+         */
+        boolean hit(ProjectilePool pool, int index);
+    }
+
+    private final ProjectileKind kind;
+    private final double maxX;
+
+    private double[] x;
+    private double[] y;
+    private double[] previousX;
+    private double[] previousY;
+    private double[] velocity;
+    private double[] travelled;
+    private int[] owner;
+    private int count = 0;
+
+    // Lifetime counts for metrics; not part of the saved state
+    private long spawned = 0;
+    private long despawned = 0;
+    private long overlapTests = 0;
+    private long overlapHits = 0;
+
+    /**
+     * Creates an empty pool
+     *
+     * @param kind The kind of projectile stored
+     * @param capacity Slots to preallocate; the pool doubles if it ever runs out
+     * @param windowWidth Projectiles leaving [0, windowWidth] despawn
+     */
+    public ProjectilePool(ProjectileKind kind, int capacity, double windowWidth) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Projectile capacity must be positive: " + capacity);
+        }
+        this.kind = kind;
+        this.maxX = windowWidth;
+        this.x = new double[capacity];
+        this.y = new double[capacity];
+        this.previousX = new double[capacity];
+        this.previousY = new double[capacity];
+        this.velocity = new double[capacity];
+        this.travelled = new double[capacity];
+        this.owner = new int[capacity];
+    }
+
+    /**
+     * Launches a projectile
+     *
+     * @param x Starting x-coordinate
+     * @param y Starting y-coordinate
+     * @param moveRight Whether it flies right (true) or left (false)
+     * @param owner Who launched it, e.g. {@link #OWNER_PLAYER} or a monkey's entity id
+     */
+    public void spawn(double x, double y, boolean moveRight, int owner) {
+        if (count == this.x.length) {
+            grow(count * 2);
+        }
+        int i = count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.previousX[i] = x;
+        this.previousY[i] = y;
+        this.velocity[i] = moveRight ? kind.getSpeed() : -kind.getSpeed();
+        this.travelled[i] = 0;
+        this.owner[i] = owner;
+        spawned++;
+    }
+
+    /**
+     * Moves every projectile, then removes the ones that flew their full
+     * distance or off screen, and those the hit test reports as used up
+     *
+     * @param hitTest Called for each projectile still in flight after moving, may be null
+     */
+    public void update(HitTest hitTest) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            x[i] += velocity[i];
+            travelled[i] += Math.abs(velocity[i]);
+
+            boolean expired = travelled[i] >= kind.getMaxDistance() || x[i] < 0 || x[i] > maxX;
+            if (expired || (hitTest != null && hitTest.hit(this, i))) {
+                continue;
+            }
+
+            if (kept != i) {
+                move(i, kept);
+            }
+            kept++;
+        }
+        despawned += count - kept;
+        count = kept;
+    }
+
+    /**
+     * Checks whether any projectile overlaps an object, using
+     * {@link GameObject#intersects(double, double, double, double, double, double)}
+     */
+    public boolean anyOverlap(GameObject other, double xMargin, double yMargin) {
+        for (int i = 0; i < count; i++) {
+            overlapTests++;
+            if (other.intersects(x[i], y[i], getHalfWidth(i), getHalfHeight(i), xMargin, yMargin)) {
+                overlapHits++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remembers every position as the state before the next tick for render interpolation
+     */
+    public void savePreviousPositions() {
+        System.arraycopy(x, 0, previousX, 0, count);
+        System.arraycopy(y, 0, previousY, 0, count);
+    }
+
+    /**
+     * Writes all projectiles for a world snapshot
+     */
+    public void writeState(ByteBuffer out) {
+        out.putInt(count);
+        for (int i = 0; i < count; i++) {
+            out.putDouble(x[i]).putDouble(y[i]);
+            out.putDouble(velocity[i]).putDouble(travelled[i]);
+            out.putInt(owner[i]);
+        }
+    }
+
+    /**
+     * Replaces all projectiles with those written by {@link #writeState}
+     */
+    public void readState(ByteBuffer in) {
+        int restored = in.getInt();
+        if (restored > x.length) {
+            grow(Math.max(restored, x.length * 2));
+        }
+        count = restored;
+        for (int i = 0; i < count; i++) {
+            x[i] = previousX[i] = in.getDouble();
+            y[i] = previousY[i] = in.getDouble();
+            velocity[i] = in.getDouble();
+            travelled[i] = in.getDouble();
+            owner[i] = in.getInt();
+        }
+    }
+
+    public ProjectileKind getKind() {
+        return kind;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Gets how many projectiles were launched since the pool was created
+     */
+    public long getSpawnedCount() {
+        return spawned;
+    }
+
+    /**
+     * Gets how many projectiles were removed by {@link #update} since the pool was created
+     */
+    public long getDespawnedCount() {
+        return despawned;
+    }
+
+    /**
+     * Gets how many projectile boxes {@link #anyOverlap} tested
+     */
+    public long getOverlapTests() {
+        return overlapTests;
+    }
+
+    /**
+     * Gets how many calls to {@link #anyOverlap} found an overlap
+     */
+    public long getOverlapHits() {
+        return overlapHits;
+    }
+
+    public double getX(int index) {
+        return x[index];
+    }
+
+    public double getY(int index) {
+        return y[index];
+    }
+
+    public double getVelocity(int index) {
+        return velocity[index];
+    }
+
+    public int getOwner(int index) {
+        return owner[index];
+    }
+
+    public Sprite getSprite(int index) {
+        return kind.getSprite(velocity[index]);
+    }
+
+    public double getHalfWidth(int index) {
+        return getSprite(index).getWidth() / 2.0;
+    }
+
+    public double getHalfHeight(int index) {
+        return getSprite(index).getHeight() / 2.0;
+    }
+
+    /**
+     * Gets the x-coordinate blended between the previous and current tick
+     */
+    public double getInterpolatedX(int index, double alpha) {
+        return previousX[index] + (x[index] - previousX[index]) * alpha;
+    }
+
+    /**
+     * Gets the y-coordinate blended between the previous and current tick
+     */
+    public double getInterpolatedY(int index, double alpha) {
+        return previousY[index] + (y[index] - previousY[index]) * alpha;
+    }
+
+    private void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        previousX[to] = previousX[from];
+        previousY[to] = previousY[from];
+        velocity[to] = velocity[from];
+        travelled[to] = travelled[from];
+        owner[to] = owner[from];
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        velocity = Arrays.copyOf(velocity, capacity);
+        travelled = Arrays.copyOf(travelled, capacity);
+        owner = Arrays.copyOf(owner, capacity);
+    }
+}
@@ -0,0 +1,43 @@
+package game.level;
+
+import game.core.Config;
+import game.core.ConfigSnapshot;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles the level layouts in app.properties into a {@link LevelLibrary} file.
+ *
+ * <p>Usage: {@code LevelCompiler [output file]} compiles levels 1, 2, ... for
+ * as long as {@code mario.levelN} is defined, and writes them to the given
+ * file, or to {@code levels.file} if none is given.
+ */
+public final class LevelCompiler {
+    private LevelCompiler() {}
+
+    /**
+     * Parses every consecutively numbered level defined in a configuration
+     */
+    public static List<LevelData> compile(ConfigSnapshot config) {
+        List<LevelData> levels = new ArrayList<>();
+        for (int number = 1; config.hasApp("mario.level" + number); number++) {
+            levels.add(LevelData.fromConfig(config, number));
+        }
+        return levels;
+    }
+
+    public static void main(String[] args) throws IOException {
+        ConfigSnapshot config = Config.snapshot();
+        Path output = Paths.get(args.length > 0 ? args[0] : config.getSettings().getLevelsFile());
+
+        long start = System.nanoTime();
+        List<LevelData> levels = compile(config);
+        LevelLibrary.write(output, levels);
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        System.out.printf("Compiled %d levels into %s in %.2f ms%n", levels.size(), output, millis);
+    }
+}
@@ -0,0 +1,260 @@
+package game.level;
+
+import game.core.ConfigSnapshot;
+import game.ecs.EntityKind;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The starting layout of one level: where Mario, Donkey Kong and the hammer
+ * start, and where every platform, ladder, barrel, blaster and monkey is.
+ * Positions are kept in flat arrays, so a layout read from a compiled
+ * {@link LevelLibrary} needs no parsing and no boxing to build a world from.
+ * Immutable; the arrays handed out must not be modified.
+ */
+public final class LevelData {
+    /**
+     * Centres of a list of objects, stored as x0, y0, x1, y1, ...
+     */
+    public static final class Points {
+        private final double[] coords;
+
+        Points(double[] coords) {
+            this.coords = coords;
+        }
+
+        public int size() {
+            return coords.length / 2;
+        }
+
+        public double getX(int i) {
+            return coords[2 * i];
+        }
+
+        public double getY(int i) {
+            return coords[2 * i + 1];
+        }
+
+        double[] coords() {
+            return coords;
+        }
+    }
+
+    private final int number;
+    private final double marioX;
+    private final double marioY;
+    private final double donkeyX;
+    private final double donkeyY;
+    private final double hammerX;
+    private final double hammerY;
+    private final Points platforms;
+    private final Points ladders;
+    private final Points barrels;
+    private final Points blasters;
+
+    // Monkeys, normal ones first, each with its own route
+    private final EntityKind[] monkeyKinds;
+    private final Points monkeys;
+    private final boolean[] monkeysFacingRight;
+    private final int[][] monkeyRoutes;
+
+    LevelData(int number, double marioX, double marioY, double donkeyX, double donkeyY,
+              double hammerX, double hammerY, Points platforms, Points ladders, Points barrels,
+              Points blasters, EntityKind[] monkeyKinds, Points monkeys, boolean[] monkeysFacingRight,
+              int[][] monkeyRoutes) {
+        this.number = number;
+        this.marioX = marioX;
+        this.marioY = marioY;
+        this.donkeyX = donkeyX;
+        this.donkeyY = donkeyY;
+        this.hammerX = hammerX;
+        this.hammerY = hammerY;
+        this.platforms = platforms;
+        this.ladders = ladders;
+        this.barrels = barrels;
+        this.blasters = blasters;
+        this.monkeyKinds = monkeyKinds;
+        this.monkeys = monkeys;
+        this.monkeysFacingRight = monkeysFacingRight;
+        this.monkeyRoutes = monkeyRoutes;
+    }
+
+    /**
+     * Parses a level from its definition in app.properties, e.g.
+     * {@code platforms.level1=350,753;764,753} and
+     * {@code normalMonkey.level2.1=900,570;left;300,300}.
+     * Malformed monkey entries are skipped.
+     *
+     * @param config The configuration holding the level
+     * @param number The level number
+     */
+    public static LevelData fromConfig(ConfigSnapshot config, int number) {
+        double[] mario = parseCoordinates(config.getApp("mario.level" + number));
+        double[] donkey = parseCoordinates(config.getApp("donkey.level" + number));
+        double[] hammer = parseCoordinates(config.getApp("hammer.level" + number + ".1"));
+
+        List<EntityKind> kinds = new ArrayList<>();
+        List<double[]> positions = new ArrayList<>();
+        List<Boolean> facings = new ArrayList<>();
+        List<int[]> routes = new ArrayList<>();
+        parseMonkeys(config, EntityKind.NORMAL_MONKEY, "normalMonkey.level" + number, kinds, positions, facings, routes);
+        parseMonkeys(config, EntityKind.INTELLIGENT_MONKEY, "intelligentMonkey.level" + number,
+                     kinds, positions, facings, routes);
+
+        double[] monkeyCoords = new double[positions.size() * 2];
+        boolean[] facingRight = new boolean[positions.size()];
+        for (int i = 0; i < positions.size(); i++) {
+            monkeyCoords[2 * i] = positions.get(i)[0];
+            monkeyCoords[2 * i + 1] = positions.get(i)[1];
+            facingRight[i] = facings.get(i);
+        }
+
+        return new LevelData(number, mario[0], mario[1], donkey[0], donkey[1], hammer[0], hammer[1],
+                             parsePlatforms(config.getApp("platforms.level" + number)),
+                             parseNumbered(config, "ladder.level" + number),
+                             parseNumbered(config, "barrel.level" + number),
+                             parseNumbered(config, "blaster.level" + number),
+                             kinds.toArray(new EntityKind[0]), new Points(monkeyCoords), facingRight,
+                             routes.toArray(new int[0][]));
+    }
+
+    /**
+     * Helper method to parse coordinates from a string in the format "x,y"
+     *
+     * @param coordString The string containing coordinates
+     * @return Array of doubles [x, y]
+     */
+    private static double[] parseCoordinates(String coordString) {
+        String[] parts = coordString.split(",");
+        return new double[] {
+            Double.parseDouble(parts[0].trim()),
+            Double.parseDouble(parts[1].trim())
+        };
+    }
+
+    // Platforms are one "x,y;x,y;..." list
+    private static Points parsePlatforms(String raw) {
+        if (raw.isEmpty()) {
+            System.err.println("No platform data found!");
+            return new Points(new double[0]);
+        }
+
+        String[] pairs = raw.split(";");
+        double[] coords = new double[pairs.length * 2];
+        for (int i = 0; i < pairs.length; i++) {
+            double[] pair = parseCoordinates(pairs[i]);
+            coords[2 * i] = pair[0];
+            coords[2 * i + 1] = pair[1];
+        }
+        return new Points(coords);
+    }
+
+    // Lists written as keyBase.count and keyBase.1 to keyBase.count, each "x,y"
+    private static Points parseNumbered(ConfigSnapshot config, String keyBase) {
+        if (!config.hasApp(keyBase + ".count")) {
+            return new Points(new double[0]);
+        }
+
+        int count = config.getAppInt(keyBase + ".count");
+        double[] coords = new double[count * 2];
+        for (int i = 1; i <= count; i++) {
+            double[] pair = parseCoordinates(config.getApp(keyBase + "." + i));
+            coords[2 * (i - 1)] = pair[0];
+            coords[2 * (i - 1) + 1] = pair[1];
+        }
+        return new Points(coords);
+    }
+
+    // Monkeys are written "x,y;direction;route" with the route as comma-separated leg distances
+    private static void parseMonkeys(ConfigSnapshot config, EntityKind kind, String keyBase, List<EntityKind> kinds,
+                                     List<double[]> positions, List<Boolean> facings, List<int[]> routes) {
+        String rawCount = config.hasApp(keyBase + ".count") ? config.getApp(keyBase + ".count").trim() : "";
+        if (rawCount.isEmpty()) {
+            return;
+        }
+
+        int count = Integer.parseInt(rawCount);
+        for (int i = 1; i <= count; i++) {
+            String value = config.getApp(keyBase + "." + i);
+            String[] parts = value.split(";");
+            if (value.isEmpty() || parts.length != 3) {
+                continue;
+            }
+
+            kinds.add(kind);
+            positions.add(parseCoordinates(parts[0]));
+            facings.add(parts[1].trim().equals("right"));
+            routes.add(Arrays.stream(parts[2].trim().split(","))
+                             .map(String::trim)
+                             .mapToInt(Integer::parseInt)
+                             .toArray());
+        }
+    }
+
+    public int getNumber() {
+        return number;
+    }
+
+    public double getMarioX() {
+        return marioX;
+    }
+
+    public double getMarioY() {
+        return marioY;
+    }
+
+    public double getDonkeyX() {
+        return donkeyX;
+    }
+
+    public double getDonkeyY() {
+        return donkeyY;
+    }
+
+    public double getHammerX() {
+        return hammerX;
+    }
+
+    public double getHammerY() {
+        return hammerY;
+    }
+
+    public Points getPlatforms() {
+        return platforms;
+    }
+
+    public Points getLadders() {
+        return ladders;
+    }
+
+    public Points getBarrels() {
+        return barrels;
+    }
+
+    public Points getBlasters() {
+        return blasters;
+    }
+
+    /**
+     * Gets the monkeys' starting positions; the other monkey getters take the same index
+     */
+    public Points getMonkeys() {
+        return monkeys;
+    }
+
+    public EntityKind getMonkeyKind(int i) {
+        return monkeyKinds[i];
+    }
+
+    public boolean isMonkeyFacingRight(int i) {
+        return monkeysFacingRight[i];
+    }
+
+    /**
+     * Gets the legs of a monkey's patrol route
+     */
+    public int[] getMonkeyRoute(int i) {
+        return monkeyRoutes[i];
+    }
+}
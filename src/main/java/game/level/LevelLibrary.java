@@ -0,0 +1,288 @@
+package game.level;
+
+import game.ecs.EntityKind;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compiled level layouts in one memory-mapped file. Opening the file only
+ * reads its index; a level is decoded straight from the mapping when asked
+ * for, with no text to parse, so switching levels costs a few microseconds
+ * however many levels the file holds. Safe to share between threads.
+ *
+ * <p>File layout (big-endian; coordinates are f64, counts and numbers i32):
+ * <pre>
+ *   "SDKL"  magic
+ *   u8      format version
+ *   i32     level count
+ *   index   level count * (number, offset, length), sorted by number
+ *   levels  each:
+ *             f64 * 6  Mario x, y, Donkey Kong x, y, hammer x, y
+ *             list * 4 platforms, ladders, barrels, blasters, each i32 count then x, y per entry
+ *             i32      monkey count, then per monkey
+ *                      u8 kind (0 normal, 1 intelligent), u8 facing right,
+ *                      f64 x, y, i32 route length, i32 per leg
+ * </pre>
+ */
+public final class LevelLibrary {
+    /** Conventional file extension for compiled levels */
+    public static final String FILE_EXTENSION = ".sdkl";
+
+    private static final byte[] MAGIC = {'S', 'D', 'K', 'L'};
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = MAGIC.length + 1 + Integer.BYTES;
+    private static final int INDEX_ENTRY_BYTES = 3 * Integer.BYTES;
+
+    // Kind, facing, x, y and route length; the legs follow
+    private static final int MONKEY_MIN_BYTES = 2 + 2 * Double.BYTES + Integer.BYTES;
+
+    private static final EntityKind[] MONKEY_KINDS = {EntityKind.NORMAL_MONKEY, EntityKind.INTELLIGENT_MONKEY};
+
+    private final ByteBuffer data;
+    private final int[] numbers;
+    private final int[] offsets;
+    private final int[] lengths;
+
+    private LevelLibrary(ByteBuffer data, int[] numbers, int[] offsets, int[] lengths) {
+        this.data = data;
+        this.numbers = numbers;
+        this.offsets = offsets;
+        this.lengths = lengths;
+    }
+
+    /**
+     * Maps a compiled level file and reads its index
+     *
+     * @throws IOException If the file can't be read or isn't a valid level file
+     */
+    public static LevelLibrary open(Path path) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        return fromBuffer(data);
+    }
+
+    /**
+     * Reads the index of compiled levels held in a buffer
+     *
+     * @throws IOException If the data isn't a valid level file
+     */
+    public static LevelLibrary fromBuffer(ByteBuffer data) throws IOException {
+        ByteBuffer in = data.duplicate();
+        try {
+            for (byte expected : MAGIC) {
+                if (in.get() != expected) {
+                    throw new IOException("Not a level file");
+                }
+            }
+            int version = in.get() & 0xFF;
+            if (version != VERSION) {
+                throw new IOException("Unsupported level file version: " + version);
+            }
+
+            int count = in.getInt();
+            if (count < 0 || count > (in.remaining() / INDEX_ENTRY_BYTES)) {
+                throw new IOException("Invalid level count: " + count);
+            }
+            int[] numbers = new int[count];
+            int[] offsets = new int[count];
+            int[] lengths = new int[count];
+            for (int i = 0; i < count; i++) {
+                numbers[i] = in.getInt();
+                offsets[i] = in.getInt();
+                lengths[i] = in.getInt();
+                if (i > 0 && numbers[i] <= numbers[i - 1]) {
+                    throw new IOException("Level index is not sorted");
+                }
+                if (offsets[i] < 0 || lengths[i] < 0 || offsets[i] > data.limit() - lengths[i]) {
+                    throw new IOException("Level " + numbers[i] + " lies outside the file");
+                }
+            }
+            return new LevelLibrary(data, numbers, offsets, lengths);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated level file", e);
+        }
+    }
+
+    /**
+     * Encodes levels in the compiled format
+     */
+    public static ByteBuffer encode(List<LevelData> levels) {
+        LevelData[] sorted = levels.toArray(new LevelData[0]);
+        Arrays.sort(sorted, (a, b) -> Integer.compare(a.getNumber(), b.getNumber()));
+
+        int size = HEADER_BYTES + sorted.length * INDEX_ENTRY_BYTES;
+        for (LevelData level : sorted) {
+            size += encodedSize(level);
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.put(MAGIC).put((byte) VERSION).putInt(sorted.length);
+        int offset = HEADER_BYTES + sorted.length * INDEX_ENTRY_BYTES;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i > 0 && sorted[i].getNumber() == sorted[i - 1].getNumber()) {
+                throw new IllegalArgumentException("Level " + sorted[i].getNumber() + " appears twice");
+            }
+            int length = encodedSize(sorted[i]);
+            out.putInt(sorted[i].getNumber()).putInt(offset).putInt(length);
+            offset += length;
+        }
+        for (LevelData level : sorted) {
+            writeLevel(out, level);
+        }
+        out.flip();
+        return out;
+    }
+
+    /**
+     * Writes levels to a file in the compiled format
+     */
+    public static void write(Path path, List<LevelData> levels) throws IOException {
+        ByteBuffer encoded = encode(levels);
+        Files.write(path, Arrays.copyOf(encoded.array(), encoded.limit()));
+    }
+
+    /**
+     * Checks whether a level is in the library
+     */
+    public boolean contains(int number) {
+        return Arrays.binarySearch(numbers, number) >= 0;
+    }
+
+    /**
+     * Gets the numbers of every level in the library, ascending
+     */
+    public int[] getLevelNumbers() {
+        return numbers.clone();
+    }
+
+    /**
+     * Decodes a level
+     *
+     * @throws IllegalArgumentException If the level isn't in the library or its data is corrupt
+     */
+    public LevelData get(int number) {
+        int i = Arrays.binarySearch(numbers, number);
+        if (i < 0) {
+            throw new IllegalArgumentException("No compiled level " + number);
+        }
+
+        ByteBuffer in = data.duplicate();
+        in.limit(offsets[i] + lengths[i]).position(offsets[i]);
+        try {
+            return readLevel(in, number);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Compiled level " + number + " is corrupt", e);
+        }
+    }
+
+    private static LevelData readLevel(ByteBuffer in, int number) {
+        double marioX = in.getDouble();
+        double marioY = in.getDouble();
+        double donkeyX = in.getDouble();
+        double donkeyY = in.getDouble();
+        double hammerX = in.getDouble();
+        double hammerY = in.getDouble();
+        LevelData.Points platforms = readPoints(in);
+        LevelData.Points ladders = readPoints(in);
+        LevelData.Points barrels = readPoints(in);
+        LevelData.Points blasters = readPoints(in);
+
+        int monkeyCount = readCount(in, MONKEY_MIN_BYTES);
+        EntityKind[] kinds = new EntityKind[monkeyCount];
+        double[] coords = new double[monkeyCount * 2];
+        boolean[] facingRight = new boolean[monkeyCount];
+        int[][] routes = new int[monkeyCount][];
+        for (int i = 0; i < monkeyCount; i++) {
+            kinds[i] = MONKEY_KINDS[in.get()];
+            facingRight[i] = in.get() != 0;
+            coords[2 * i] = in.getDouble();
+            coords[2 * i + 1] = in.getDouble();
+            routes[i] = new int[readCount(in, Integer.BYTES)];
+            in.asIntBuffer().get(routes[i]);
+            in.position(in.position() + routes[i].length * Integer.BYTES);
+        }
+
+        return new LevelData(number, marioX, marioY, donkeyX, donkeyY, hammerX, hammerY,
+                             platforms, ladders, barrels, blasters,
+                             kinds, new LevelData.Points(coords), facingRight, routes);
+    }
+
+    private static LevelData.Points readPoints(ByteBuffer in) {
+        double[] coords = new double[readCount(in, 2 * Double.BYTES) * 2];
+        in.asDoubleBuffer().get(coords);
+        in.position(in.position() + coords.length * Double.BYTES);
+        return new LevelData.Points(coords);
+    }
+
+    /**
+     * Reads a count and checks that the rest of the level can hold that many
+     * entries, so a corrupt count fails before anything is allocated for it
+     *
+     * @param entryBytes The fewest bytes one entry takes
+     */
+    private static int readCount(ByteBuffer in, int entryBytes) {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / entryBytes) {
+            throw new IllegalArgumentException("Invalid count " + count + " with " + in.remaining() + " bytes left");
+        }
+        return count;
+    }
+
+    private static void writeLevel(ByteBuffer out, LevelData level) {
+        out.putDouble(level.getMarioX()).putDouble(level.getMarioY());
+        out.putDouble(level.getDonkeyX()).putDouble(level.getDonkeyY());
+        out.putDouble(level.getHammerX()).putDouble(level.getHammerY());
+        writePoints(out, level.getPlatforms());
+        writePoints(out, level.getLadders());
+        writePoints(out, level.getBarrels());
+        writePoints(out, level.getBlasters());
+
+        LevelData.Points monkeys = level.getMonkeys();
+        out.putInt(monkeys.size());
+        for (int i = 0; i < monkeys.size(); i++) {
+            int kind = Arrays.asList(MONKEY_KINDS).indexOf(level.getMonkeyKind(i));
+            if (kind < 0) {
+                throw new IllegalArgumentException("Not a monkey: " + level.getMonkeyKind(i));
+            }
+            out.put((byte) kind).put((byte) (level.isMonkeyFacingRight(i) ? 1 : 0));
+            out.putDouble(monkeys.getX(i)).putDouble(monkeys.getY(i));
+            int[] route = level.getMonkeyRoute(i);
+            out.putInt(route.length);
+            for (int leg : route) {
+                out.putInt(leg);
+            }
+        }
+    }
+
+    private static void writePoints(ByteBuffer out, LevelData.Points points) {
+        out.putInt(points.size());
+        for (double coord : points.coords()) {
+            out.putDouble(coord);
+        }
+    }
+
+    private static int encodedSize(LevelData level) {
+        int size = 6 * Double.BYTES;
+        size += pointsSize(level.getPlatforms()) + pointsSize(level.getLadders())
+              + pointsSize(level.getBarrels()) + pointsSize(level.getBlasters());
+        size += Integer.BYTES;
+        for (int i = 0; i < level.getMonkeys().size(); i++) {
+            size += 2 + 2 * Double.BYTES + Integer.BYTES + level.getMonkeyRoute(i).length * Integer.BYTES;
+        }
+        return size;
+    }
+
+    private static int pointsSize(LevelData.Points points) {
+        return Integer.BYTES + points.size() * 2 * Double.BYTES;
+    }
+}
@@ -0,0 +1,84 @@
+package game.level;
+
+import java.util.Arrays;
+
+/**
+ * The order levels are played in, e.g. 1, 2. Winning a level moves on to
+ * the next one in the sequence; winning the last one wins the game.
+ * Immutable.
+ */
+public final class LevelSequence {
+    private final int[] numbers;
+
+    /**
+     * @param numbers Level numbers in playing order, each at most once
+     * @throws IllegalArgumentException If the sequence is empty or repeats a level
+     */
+    public LevelSequence(int... numbers) {
+        if (numbers.length == 0) {
+            throw new IllegalArgumentException("A level sequence needs at least one level");
+        }
+        int[] sorted = numbers.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                throw new IllegalArgumentException("Level " + sorted[i] + " appears twice in the sequence");
+            }
+        }
+        this.numbers = numbers.clone();
+    }
+
+    /**
+     * Gets the level the game starts with
+     */
+    public int first() {
+        return numbers[0];
+    }
+
+    /**
+     * Checks whether a level is part of the sequence
+     */
+    public boolean contains(int number) {
+        return indexOf(number) >= 0;
+    }
+
+    /**
+     * Checks whether a level is followed by another
+     */
+    public boolean hasNext(int number) {
+        int i = indexOf(number);
+        return i >= 0 && i + 1 < numbers.length;
+    }
+
+    /**
+     * Gets the level played after another
+     *
+     * @throws IllegalArgumentException If the level is the last or not in the sequence
+     */
+    public int next(int number) {
+        if (!hasNext(number)) {
+            throw new IllegalArgumentException("No level after " + number);
+        }
+        return numbers[indexOf(number) + 1];
+    }
+
+    public int size() {
+        return numbers.length;
+    }
+
+    /**
+     * Gets the level at a position, starting from 0
+     */
+    public int get(int i) {
+        return numbers[i];
+    }
+
+    private int indexOf(int number) {
+        for (int i = 0; i < numbers.length; i++) {
+            if (numbers[i] == number) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,71 @@
+package game.level;
+
+import game.core.ConfigSnapshot;
+import game.core.GameSettings;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Where the layouts of one configuration come from: the compiled
+ * {@link LevelLibrary} when {@code levels.compiled} is on and it holds the
+ * level, the configuration otherwise. The game, replays, batch runs and the
+ * server all look layouts up through this, so a run is always re-simulated
+ * against the layout it was played on. Immutable and safe to share between
+ * threads.
+ */
+public final class LevelSource {
+    private static final Logger LOGGER = Logger.getLogger(LevelSource.class.getName());
+
+    private final ConfigSnapshot config;
+    private final LevelLibrary library;
+
+    /**
+     * @param config The configuration holding the layouts and settings
+     * @param library Compiled layouts, or null to read every layout from the configuration
+     */
+    public LevelSource(ConfigSnapshot config, LevelLibrary library) {
+        this.config = config;
+        this.library = library;
+    }
+
+    /**
+     * Gets the layouts a configuration asks for, opening {@code levels.file}
+     * if {@code levels.compiled} is on. If the file can't be used the error
+     * is logged and layouts are read from the configuration.
+     */
+    public static LevelSource of(ConfigSnapshot config) {
+        GameSettings settings = config.getSettings();
+        if (!settings.isCompiledLevels()) {
+            return new LevelSource(config, null);
+        }
+
+        String file = settings.getLevelsFile();
+        try {
+            return new LevelSource(config, LevelLibrary.open(Paths.get(file)));
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to open compiled levels " + file
+                       + "; reading levels from the configuration", e);
+            return new LevelSource(config, null);
+        }
+    }
+
+    public ConfigSnapshot getConfig() {
+        return config;
+    }
+
+    /**
+     * Checks whether a level's layout comes from the compiled level file
+     */
+    public boolean isCompiled(int number) {
+        return library != null && library.contains(number);
+    }
+
+    /**
+     * Gets a level's layout
+     */
+    public LevelData get(int number) {
+        return isCompiled(number) ? library.get(number) : LevelData.fromConfig(config, number);
+    }
+}
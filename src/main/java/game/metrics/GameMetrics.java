@@ -0,0 +1,261 @@
+package game.metrics;
+
+import game.core.GameWorld;
+import game.ecs.EntityKind;
+import game.ecs.EntityStore;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Collects the {@link GameMetricsMXBean} counters once per gameplay frame.
+ * Only the game thread writes them, between {@link #beginTicks()} and
+ * {@link #endTicks}; JMX and the {@link PrometheusEndpoint} read them from
+ * their own threads, so every published value is volatile.
+ * <p>
+ * A world's own counters start at 0 when it is built, so the totals here
+ * add up what each frame changed, and start over with every new world.
+ */
+public final class GameMetrics implements GameMetricsMXBean {
+    /** Name the metrics are registered under on the platform MBean server */
+    public static final String OBJECT_NAME = "game:type=GameMetrics";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    // Allocation counting, null when the JVM can't count allocations per thread
+    private final com.sun.management.ThreadMXBean threads;
+
+    // Published
+    private volatile int barrels;
+    private volatile int normalMonkeys;
+    private volatile int intelligentMonkeys;
+    private volatile int bullets;
+    private volatile int bananas;
+    private volatile long frameCollisionTests;
+    private volatile long frameCollisionHits;
+    private volatile long collisionTests;
+    private volatile long collisionHits;
+    private volatile long projectilesSpawned;
+    private volatile long projectilesDespawned;
+    private volatile long allocatedBytesPerTick;
+    private volatile long allocatedBytes;
+    private volatile long ticks;
+    private volatile double ticksPerSecond;
+    private volatile long droppedTicks;
+    private volatile long frames;
+
+    // Game thread only: what the current world's counters read last frame
+    private GameWorld world;
+    private long worldTests;
+    private long worldHits;
+    private long worldSpawned;
+    private long worldDespawned;
+
+    // Game thread only: allocation at the start of the ticks, and the ticks/s window
+    private long allocatedAtStart;
+    private long windowStart = -1;
+    private long windowTicks;
+
+    public GameMetrics() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            this.threads = (com.sun.management.ThreadMXBean) bean;
+            threads.setThreadAllocatedMemoryEnabled(true);
+            this.allocatedBytesPerTick = 0;
+            this.allocatedBytes = 0;
+        } else {
+            this.threads = null;
+            this.allocatedBytesPerTick = -1;
+            this.allocatedBytes = -1;
+        }
+    }
+
+    /**
+     * Registers the metrics on the platform MBean server as {@value #OBJECT_NAME}
+     *
+     * @throws JMException If they can't be registered, e.g. because the name is taken
+     */
+    public void register() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+    }
+
+    /**
+     * Marks the start of a frame's ticks, for counting what they allocate
+     */
+    public void beginTicks() {
+        if (threads != null) {
+            allocatedAtStart = threads.getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    /**
+     * Publishes the counters of a gameplay frame
+     *
+     * @param current The world being played
+     * @param ticksRun Ticks run since {@link #beginTicks()}
+     * @param dropped Owed ticks the frame dropped instead of running
+     */
+    public void endTicks(GameWorld current, int ticksRun, int dropped) {
+        if (threads != null && ticksRun > 0) {
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedAtStart;
+            allocatedBytesPerTick = allocated / ticksRun;
+            allocatedBytes += allocated;
+        }
+
+        if (current != world) {
+            world = current;
+            worldTests = worldHits = worldSpawned = worldDespawned = 0;
+        }
+
+        long tests = current.getCollisionTests();
+        long hits = current.getCollisionHits();
+        frameCollisionTests = tests - worldTests;
+        frameCollisionHits = hits - worldHits;
+        collisionTests += tests - worldTests;
+        collisionHits += hits - worldHits;
+        worldTests = tests;
+        worldHits = hits;
+
+        long spawned = current.getBullets().getSpawnedCount() + current.getBananas().getSpawnedCount();
+        long despawned = current.getBullets().getDespawnedCount() + current.getBananas().getDespawnedCount();
+        projectilesSpawned += spawned - worldSpawned;
+        projectilesDespawned += despawned - worldDespawned;
+        worldSpawned = spawned;
+        worldDespawned = despawned;
+
+        publishEntities(current);
+
+        ticks += ticksRun;
+        droppedTicks += dropped;
+        frames++;
+        updateTicksPerSecond(ticksRun);
+    }
+
+    /**
+     * Publishes a rewound world without counting the work of the rewind.
+     * Rewinding re-simulates ticks from a keyframe, which moves the world's
+     * own counters on; they are taken as the new baseline, so the totals
+     * only count ticks that were played.
+     */
+    public void rewound(GameWorld current) {
+        world = current;
+        worldTests = current.getCollisionTests();
+        worldHits = current.getCollisionHits();
+        worldSpawned = current.getBullets().getSpawnedCount() + current.getBananas().getSpawnedCount();
+        worldDespawned = current.getBullets().getDespawnedCount() + current.getBananas().getDespawnedCount();
+        frameCollisionTests = 0;
+        frameCollisionHits = 0;
+        publishEntities(current);
+    }
+
+    private void publishEntities(GameWorld current) {
+        EntityStore entities = current.getEntities();
+        barrels = entities.count(EntityKind.BARREL);
+        normalMonkeys = entities.count(EntityKind.NORMAL_MONKEY);
+        intelligentMonkeys = entities.count(EntityKind.INTELLIGENT_MONKEY);
+        bullets = current.getBullets().size();
+        bananas = current.getBananas().size();
+    }
+
+    private void updateTicksPerSecond(int ticksRun) {
+        long now = System.nanoTime();
+        if (windowStart < 0) {
+            windowStart = now;
+            return;
+        }
+
+        windowTicks += ticksRun;
+        long elapsed = now - windowStart;
+        if (elapsed >= NANOS_PER_SECOND) {
+            ticksPerSecond = windowTicks * (double) NANOS_PER_SECOND / elapsed;
+            windowStart = now;
+            windowTicks = 0;
+        }
+    }
+
+    @Override
+    public int getBarrels() {
+        return barrels;
+    }
+
+    @Override
+    public int getNormalMonkeys() {
+        return normalMonkeys;
+    }
+
+    @Override
+    public int getIntelligentMonkeys() {
+        return intelligentMonkeys;
+    }
+
+    @Override
+    public int getBullets() {
+        return bullets;
+    }
+
+    @Override
+    public int getBananas() {
+        return bananas;
+    }
+
+    @Override
+    public long getFrameCollisionTests() {
+        return frameCollisionTests;
+    }
+
+    @Override
+    public long getFrameCollisionHits() {
+        return frameCollisionHits;
+    }
+
+    @Override
+    public long getCollisionTests() {
+        return collisionTests;
+    }
+
+    @Override
+    public long getCollisionHits() {
+        return collisionHits;
+    }
+
+    @Override
+    public long getProjectilesSpawned() {
+        return projectilesSpawned;
+    }
+
+    @Override
+    public long getProjectilesDespawned() {
+        return projectilesDespawned;
+    }
+
+    @Override
+    public long getAllocatedBytesPerTick() {
+        return allocatedBytesPerTick;
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public long getTicks() {
+        return ticks;
+    }
+
+    @Override
+    public double getTicksPerSecond() {
+        return ticksPerSecond;
+    }
+
+    @Override
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+
+    @Override
+    public long getFrames() {
+        return frames;
+    }
+}
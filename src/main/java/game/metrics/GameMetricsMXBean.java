@@ -0,0 +1,54 @@
+package game.metrics;
+
+/**
+ * Live counters of the game being played, as seen over JMX under
+ * {@value GameMetrics#OBJECT_NAME}. Totals count from startup; "last
+ * frame" values are those of the most recent gameplay frame.
+ */
+public interface GameMetricsMXBean {
+    /** Barrels alive in the current level */
+    int getBarrels();
+
+    /** Normal monkeys alive in the current level */
+    int getNormalMonkeys();
+
+    /** Intelligent monkeys alive in the current level */
+    int getIntelligentMonkeys();
+
+    /** Bullets in flight */
+    int getBullets();
+
+    /** Bananas in flight */
+    int getBananas();
+
+    /** Entity and projectile boxes tested for overlap in the last frame */
+    long getFrameCollisionTests();
+
+    /** Of those, the tests that found an overlap */
+    long getFrameCollisionHits();
+
+    long getCollisionTests();
+
+    long getCollisionHits();
+
+    long getProjectilesSpawned();
+
+    long getProjectilesDespawned();
+
+    /** Bytes the game thread allocated per tick in the last frame that ran ticks, -1 if unsupported */
+    long getAllocatedBytesPerTick();
+
+    /** Bytes the game thread allocated while ticking, -1 if unsupported */
+    long getAllocatedBytes();
+
+    long getTicks();
+
+    /** Ticks run per second, measured over about a second */
+    double getTicksPerSecond();
+
+    /** Ticks that were owed after a stall but dropped instead of run */
+    long getDroppedTicks();
+
+    /** Gameplay frames rendered */
+    long getFrames();
+}
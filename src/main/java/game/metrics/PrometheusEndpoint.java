@@ -0,0 +1,136 @@
+package game.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves {@link GameMetricsMXBean} counters at {@code /metrics} in the
+ * Prometheus text format, on the loopback interface only, so a local
+ * agent can scrape them but nothing off the machine can reach the game.
+ * Requests are answered on one daemon thread.
+ */
+public final class PrometheusEndpoint implements AutoCloseable {
+    /** Path the metrics are served at */
+    public static final String PATH = "/metrics";
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private PrometheusEndpoint(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts serving metrics
+     *
+     * @param metrics The counters to serve
+     * @param port Loopback port to listen on, 0 for any free port
+     * @throws IOException If the port can't be bound
+     */
+    public static PrometheusEndpoint start(GameMetricsMXBean metrics, int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-endpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext(PATH, exchange -> respond(exchange, metrics));
+        server.start();
+        return new PrometheusEndpoint(server, executor);
+    }
+
+    /**
+     * Gets the port being listened on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops serving metrics
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Formats the counters in the Prometheus text exposition format
+     */
+    public static String format(GameMetricsMXBean metrics) {
+        StringBuilder out = new StringBuilder();
+        header(out, "game_entities", "gauge", "Entities alive in the current level by type");
+        sample(out, "game_entities{type=\"barrel\"}", metrics.getBarrels());
+        sample(out, "game_entities{type=\"normal_monkey\"}", metrics.getNormalMonkeys());
+        sample(out, "game_entities{type=\"intelligent_monkey\"}", metrics.getIntelligentMonkeys());
+        sample(out, "game_entities{type=\"bullet\"}", metrics.getBullets());
+        sample(out, "game_entities{type=\"banana\"}", metrics.getBananas());
+
+        header(out, "game_frame_collision_tests", "gauge", "Boxes tested for overlap in the last frame");
+        sample(out, "game_frame_collision_tests", metrics.getFrameCollisionTests());
+        header(out, "game_frame_collision_hits", "gauge", "Overlap tests that hit in the last frame");
+        sample(out, "game_frame_collision_hits", metrics.getFrameCollisionHits());
+        header(out, "game_collision_tests_total", "counter", "Boxes tested for overlap");
+        sample(out, "game_collision_tests_total", metrics.getCollisionTests());
+        header(out, "game_collision_hits_total", "counter", "Overlap tests that hit");
+        sample(out, "game_collision_hits_total", metrics.getCollisionHits());
+
+        header(out, "game_projectiles_spawned_total", "counter", "Bullets and bananas launched");
+        sample(out, "game_projectiles_spawned_total", metrics.getProjectilesSpawned());
+        header(out, "game_projectiles_despawned_total", "counter", "Bullets and bananas removed");
+        sample(out, "game_projectiles_despawned_total", metrics.getProjectilesDespawned());
+
+        header(out, "game_allocated_bytes_per_tick", "gauge",
+               "Bytes allocated per tick in the last frame, -1 if unsupported");
+        sample(out, "game_allocated_bytes_per_tick", metrics.getAllocatedBytesPerTick());
+        header(out, "game_allocated_bytes_total", "counter", "Bytes allocated while ticking, -1 if unsupported");
+        sample(out, "game_allocated_bytes_total", metrics.getAllocatedBytes());
+
+        header(out, "game_ticks_total", "counter", "Simulation ticks run");
+        sample(out, "game_ticks_total", metrics.getTicks());
+        header(out, "game_ticks_per_second", "gauge", "Simulation ticks run per second");
+        out.append(String.format(Locale.ROOT, "game_ticks_per_second %.3f\n", metrics.getTicksPerSecond()));
+        header(out, "game_dropped_ticks_total", "counter", "Owed ticks dropped after a stall");
+        sample(out, "game_dropped_ticks_total", metrics.getDroppedTicks());
+        header(out, "game_frames_total", "counter", "Gameplay frames rendered");
+        sample(out, "game_frames_total", metrics.getFrames());
+        return out.toString();
+    }
+
+    private static void respond(HttpExchange exchange, GameMetricsMXBean metrics) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = format(metrics).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, long value) {
+        out.append(name).append(' ').append(value).append('\n');
+    }
+}
@@ -0,0 +1,75 @@
+package game.physics;
+
+import game.entities.Ladder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable index of a level's ladders by x-column.
+ * Each ladder is listed in every fixed-width column its horizontal extent
+ * touches, so the ladders Mario could be aligned with are found by looking
+ * up the single column under his centre. Ladders keep their level order
+ * within a column, which preserves first-match tie breaks of a plain scan.
+ */
+public final class LadderIndex {
+    private static final double COLUMN_WIDTH = 32.0;
+
+    private final int firstColumn;
+    private final List<List<Ladder>> columns;
+
+    /**
+     * Builds the index. Ladders must already be connected to their platforms.
+     *
+     * @param ladders The level's ladders in level order
+     */
+    public LadderIndex(List<Ladder> ladders) {
+        int first = Integer.MAX_VALUE;
+        int last = Integer.MIN_VALUE;
+        for (Ladder ladder : ladders) {
+            first = Math.min(first, column(ladder.getLeft()));
+            last = Math.max(last, column(ladder.getRight()));
+        }
+
+        if (ladders.isEmpty()) {
+            this.firstColumn = 0;
+            this.columns = Collections.emptyList();
+            return;
+        }
+
+        List<List<Ladder>> building = new ArrayList<>();
+        for (int c = first; c <= last; c++) {
+            building.add(new ArrayList<>());
+        }
+        for (Ladder ladder : ladders) {
+            for (int c = column(ladder.getLeft()); c <= column(ladder.getRight()); c++) {
+                building.get(c - first).add(ladder);
+            }
+        }
+
+        List<List<Ladder>> frozen = new ArrayList<>(building.size());
+        for (List<Ladder> column : building) {
+            frozen.add(List.copyOf(column));
+        }
+        this.firstColumn = first;
+        this.columns = List.copyOf(frozen);
+    }
+
+    /**
+     * Gets the ladders whose horizontal extent, edges included, may contain x
+     *
+     * @return An immutable list in level order; it may also hold ladders that
+     *         merely share the column, so callers still test alignment
+     */
+    public List<Ladder> getCandidates(double x) {
+        int index = column(x) - firstColumn;
+        if (index < 0 || index >= columns.size()) {
+            return Collections.emptyList();
+        }
+        return columns.get(index);
+    }
+
+    private static int column(double x) {
+        return (int) Math.floor(x / COLUMN_WIDTH);
+    }
+}
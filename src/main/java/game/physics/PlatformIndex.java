@@ -0,0 +1,180 @@
+package game.physics;
+
+import game.entities.Platform;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Immutable index over a level's platforms for ground and snap queries.
+ * The x axis is cut into slabs at every platform edge; each slab lists the
+ * platforms spanning it sorted by their top, so a query binary-searches the
+ * few slabs under an object and then the heights within them. Platforms
+ * never move after loading, so the index is built once per level.
+ */
+public final class PlatformIndex {
+    // Extra height searched around a band so rounding never hides a candidate
+    private static final double BAND_PADDING = 1.0;
+
+    private final Platform[] platforms;
+    private final double[] lefts;
+    private final double[] rights;
+    private final double[] tops;
+    private final Platform lowest;
+
+    // Slab i spans (edges[i], edges[i + 1])
+    private final double[] edges;
+    private final int[][] slabPlatforms;
+    private final double[][] slabTops;
+
+    /**
+     * Builds the index
+     *
+     * @param platforms The level's platforms in level order
+     */
+    public PlatformIndex(List<Platform> platforms) {
+        int count = platforms.size();
+        this.platforms = platforms.toArray(new Platform[0]);
+        this.lefts = new double[count];
+        this.rights = new double[count];
+        this.tops = new double[count];
+
+        TreeSet<Double> edgeSet = new TreeSet<>();
+        Platform lowestSoFar = null;
+        for (int i = 0; i < count; i++) {
+            Platform p = this.platforms[i];
+            lefts[i] = p.getX() - p.getWidth() / 2.0;
+            rights[i] = p.getX() + p.getWidth() / 2.0;
+            tops[i] = p.getY() - p.getHeight() / 2.0;
+            edgeSet.add(lefts[i]);
+            edgeSet.add(rights[i]);
+
+            if (lowestSoFar == null || p.getY() > lowestSoFar.getY()) {
+                lowestSoFar = p;
+            }
+        }
+        this.lowest = lowestSoFar;
+
+        this.edges = edgeSet.stream().mapToDouble(Double::doubleValue).toArray();
+        int slabCount = Math.max(0, edges.length - 1);
+        this.slabPlatforms = new int[slabCount][];
+        this.slabTops = new double[slabCount][];
+
+        Comparator<Integer> byTop = Comparator.<Integer>comparingDouble(i -> tops[i]).thenComparingInt(i -> i);
+        for (int s = 0; s < slabCount; s++) {
+            List<Integer> spanning = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                if (lefts[i] <= edges[s] && rights[i] >= edges[s + 1]) {
+                    spanning.add(i);
+                }
+            }
+            spanning.sort(byTop);
+
+            slabPlatforms[s] = spanning.stream().mapToInt(Integer::intValue).toArray();
+            slabTops[s] = spanning.stream().mapToDouble(i -> tops[i]).toArray();
+        }
+    }
+
+    /**
+     * Finds the highest platform top at or below a point, among the
+     * platforms horizontally overlapping the given span
+     *
+     * @param left Left edge of the span
+     * @param right Right edge of the span
+     * @param y The height to search down from
+     * @return The platform top, or NaN if there is none
+     */
+    public double findTopBelow(double left, double right, double y) {
+        double best = Double.NaN;
+        for (int s = firstSlab(left); s < slabPlatforms.length && edges[s] < right; s++) {
+            int[] indices = slabPlatforms[s];
+            for (int k = lowerBound(slabTops[s], y); k < indices.length; k++) {
+                int i = indices[k];
+                if (overlaps(i, left, right) && tops[i] >= y) {
+                    if (Double.isNaN(best) || tops[i] < best) {
+                        best = tops[i];
+                    }
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the platform an object is resting on: the first platform in
+     * level order that horizontally overlaps the span and whose top is
+     * strictly within the tolerance of the object's bottom
+     *
+     * @param left Left edge of the object
+     * @param right Right edge of the object
+     * @param bottom Bottom edge of the object
+     * @param tolerance Maximum distance, exclusive, between bottom and platform top
+     * @return The supporting platform, or null if there is none
+     */
+    public Platform findSupporting(double left, double right, double bottom, double tolerance) {
+        double from = bottom - tolerance - BAND_PADDING;
+        double to = bottom + tolerance + BAND_PADDING;
+
+        int best = Integer.MAX_VALUE;
+        for (int s = firstSlab(left); s < slabPlatforms.length && edges[s] < right; s++) {
+            int[] indices = slabPlatforms[s];
+            double[] slabTop = slabTops[s];
+            for (int k = lowerBound(slabTop, from); k < indices.length && slabTop[k] <= to; k++) {
+                int i = indices[k];
+                if (i < best && overlaps(i, left, right) && Math.abs(bottom - tops[i]) < tolerance) {
+                    best = i;
+                }
+            }
+        }
+        return best == Integer.MAX_VALUE ? null : platforms[best];
+    }
+
+    /**
+     * Gets the platform with the largest centre y, the first one on ties
+     *
+     * @return The lowest platform, or null if the level has none
+     */
+    public Platform getLowest() {
+        return lowest;
+    }
+
+    public int size() {
+        return platforms.length;
+    }
+
+    private boolean overlaps(int i, double left, double right) {
+        return right > lefts[i] && left < rights[i];
+    }
+
+    // First slab whose right edge lies past the given x
+    private int firstSlab(double left) {
+        int low = 0;
+        int high = slabPlatforms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (edges[mid + 1] > left) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // First position whose value is >= the key
+    private static int lowerBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
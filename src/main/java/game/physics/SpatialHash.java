@@ -0,0 +1,226 @@
+package game.physics;
+
+import java.util.Arrays;
+
+/**
+ * Uniform-grid spatial hash used as a collision broadphase.
+ * Boxes are registered under a non-negative int id chosen by the caller,
+ * such as an entity id; after a box moves, {@link #update} re-buckets it
+ * only if it crossed into different cells. Queries visit the ids of the
+ * boxes whose cells a probe touches in ascending id order, so callers that
+ * hand out ids in creation order see the same order as a plain loop.
+ * Exact overlap tests are left to the caller. Nothing is allocated once
+ * the buckets have grown to their working size.
+ */
+public class SpatialHash {
+    private static final int TABLE_SIZE = 1024; // power of two
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+    /**
+     * Receives the ids of the boxes near a probe
+     */
+    @FunctionalInterface
+    public interface CandidateVisitor {
+        /**
+         * @return true to stop the query
+         */
+        boolean visit(int id);
+    }
+
+    private final double cellSize;
+
+    // Per id: whether it is registered and the cell range it is bucketed in
+    private boolean[] registered = new boolean[INITIAL_CAPACITY];
+    private int[] minCellX = new int[INITIAL_CAPACITY];
+    private int[] minCellY = new int[INITIAL_CAPACITY];
+    private int[] maxCellX = new int[INITIAL_CAPACITY];
+    private int[] maxCellY = new int[INITIAL_CAPACITY];
+    private int[] queryStamps = new int[INITIAL_CAPACITY];
+
+    // Ids per hashed cell; different cells may share a bucket
+    private final int[][] buckets = new int[TABLE_SIZE][];
+    private final int[] bucketSizes = new int[TABLE_SIZE];
+
+    // Query scratch space
+    private int[] candidates = new int[INITIAL_CAPACITY];
+    private int queryStamp = 0;
+
+    /**
+     * Creates an empty grid
+     *
+     * @param cellSize Width and height of a cell in pixels, ideally about the size of the boxes stored
+     */
+    public SpatialHash(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Registers a box, or re-buckets it if the id is already registered
+     *
+     * @param id Non-negative id to update, remove or report the box by
+     */
+    public void update(int id, double left, double top, double right, double bottom) {
+        if (id >= registered.length) {
+            grow(Math.max(id + 1, registered.length * 2));
+        }
+
+        int newMinX = cell(left);
+        int newMinY = cell(top);
+        int newMaxX = cell(right);
+        int newMaxY = cell(bottom);
+
+        if (registered[id]) {
+            if (newMinX == minCellX[id] && newMinY == minCellY[id]
+                    && newMaxX == maxCellX[id] && newMaxY == maxCellY[id]) {
+                return;
+            }
+            removeFromCells(id);
+        }
+
+        registered[id] = true;
+        minCellX[id] = newMinX;
+        minCellY[id] = newMinY;
+        maxCellX[id] = newMaxX;
+        maxCellY[id] = newMaxY;
+        addToCells(id);
+    }
+
+    /**
+     * Unregisters a box. Does nothing if the id isn't registered.
+     */
+    public void remove(int id) {
+        if (id < registered.length && registered[id]) {
+            removeFromCells(id);
+            registered[id] = false;
+        }
+    }
+
+    /**
+     * Unregisters every box
+     */
+    public void clear() {
+        Arrays.fill(registered, false);
+        Arrays.fill(bucketSizes, 0);
+    }
+
+    /**
+     * Visits, in ascending order, the id of every registered box sharing a
+     * cell with the probe box. This is a superset of the boxes overlapping it.
+     *
+     * @param visitor Called for each candidate id
+     * @return true if the visitor stopped the query
+     */
+    public boolean forEachCandidate(double left, double top, double right, double bottom,
+                                    CandidateVisitor visitor) {
+        int count = collectCandidates(left, top, right, bottom);
+        for (int i = 0; i < count; i++) {
+            if (visitor.visit(candidates[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Gathers the distinct ids in the cells under a box, sorted
+    private int collectCandidates(double left, double top, double right, double bottom) {
+        int fromX = cell(left);
+        int fromY = cell(top);
+        int toX = cell(right);
+        int toY = cell(bottom);
+
+        if (++queryStamp == 0) {
+            Arrays.fill(queryStamps, 0);
+            queryStamp = 1;
+        }
+
+        int count = 0;
+        for (int cx = fromX; cx <= toX; cx++) {
+            for (int cy = fromY; cy <= toY; cy++) {
+                int bucket = bucketOf(cx, cy);
+                int[] ids = buckets[bucket];
+                for (int i = 0, size = bucketSizes[bucket]; i < size; i++) {
+                    int id = ids[i];
+                    if (queryStamps[id] != queryStamp) {
+                        queryStamps[id] = queryStamp;
+                        if (count == candidates.length) {
+                            candidates = Arrays.copyOf(candidates, count * 2);
+                        }
+                        candidates[count++] = id;
+                    }
+                }
+            }
+        }
+
+        Arrays.sort(candidates, 0, count);
+        return count;
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static int bucketOf(int cellX, int cellY) {
+        return ((cellX * 73856093) ^ (cellY * 19349663)) & (TABLE_SIZE - 1);
+    }
+
+    private void addToCells(int id) {
+        for (int cx = minCellX[id]; cx <= maxCellX[id]; cx++) {
+            for (int cy = minCellY[id]; cy <= maxCellY[id]; cy++) {
+                int bucket = bucketOf(cx, cy);
+                int[] ids = buckets[bucket];
+                int size = bucketSizes[bucket];
+
+                // Cells hashing to the same bucket share an entry
+                if (contains(ids, size, id)) {
+                    continue;
+                }
+                if (ids == null) {
+                    ids = buckets[bucket] = new int[INITIAL_BUCKET_CAPACITY];
+                } else if (size == ids.length) {
+                    ids = buckets[bucket] = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size] = id;
+                bucketSizes[bucket] = size + 1;
+            }
+        }
+    }
+
+    private void removeFromCells(int id) {
+        for (int cx = minCellX[id]; cx <= maxCellX[id]; cx++) {
+            for (int cy = minCellY[id]; cy <= maxCellY[id]; cy++) {
+                int bucket = bucketOf(cx, cy);
+                int[] ids = buckets[bucket];
+                int size = bucketSizes[bucket];
+                for (int i = 0; i < size; i++) {
+                    if (ids[i] == id) {
+                        ids[i] = ids[size - 1];
+                        bucketSizes[bucket] = size - 1;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean contains(int[] ids, int size, int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void grow(int capacity) {
+        registered = Arrays.copyOf(registered, capacity);
+        minCellX = Arrays.copyOf(minCellX, capacity);
+        minCellY = Arrays.copyOf(minCellY, capacity);
+        maxCellX = Arrays.copyOf(maxCellX, capacity);
+        maxCellY = Arrays.copyOf(maxCellY, capacity);
+        queryStamps = Arrays.copyOf(queryStamps, capacity);
+    }
+}
@@ -0,0 +1,278 @@
+package game.render;
+
+import bagel.Font;
+import bagel.Image;
+import game.core.Sprite;
+import game.diagnostics.AssetLoadEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads every image the game draws exactly once and hands out the shared
+ * {@link Image}. However many entities use a sprite, and however often a
+ * level is reloaded, there is one texture per file. Keeps statistics on
+ * what was loaded, for how long and roughly how much texture memory it takes.
+ * <p>
+ * Small images can also be packed into a {@link TextureAtlas} at startup.
+ * A {@link SpriteBatch} draws packed sprites as sections of the atlas, and
+ * their own files are then never loaded as separate textures.
+ * <p>
+ * Fonts are shared the same way, one per file and size, so text drawn every
+ * frame doesn't parse the font file again.
+ * Only used from the render thread.
+ */
+public class AssetManager {
+    private static final Logger LOGGER = Logger.getLogger(AssetManager.class.getName());
+
+    // Decoded textures are 8-bit RGBA
+    private static final int BYTES_PER_PIXEL = 4;
+    private static final String IMAGE_EXTENSION = ".png";
+
+    private final Path directory;
+    private final Map<String, Image> images = new HashMap<>();
+    private final Map<String, Font> fonts = new HashMap<>();
+
+    // Lookups by sprite, which is shared per path, so drawing never builds a key
+    private final Map<Sprite, Image> spriteImages = new IdentityHashMap<>();
+    private final Map<Sprite, TextureAtlas.Region> spriteRegions = new IdentityHashMap<>();
+
+    // Null until an atlas is built
+    private TextureAtlas atlas;
+    private Image atlasImage;
+
+    // Statistics
+    private long loadNanos = 0;
+    private long textureBytes = 0;
+    private long requests = 0;
+
+    /**
+     * Creates an empty manager
+     *
+     * @param directory The asset directory, e.g. "res"
+     */
+    public AssetManager(String directory) {
+        this.directory = Paths.get(directory).normalize();
+    }
+
+    /**
+     * Packs every image in the asset directory no larger than the given
+     * size into an atlas and loads it as one texture. If packing fails the
+     * error is logged and every image keeps its own texture.
+     *
+     * @param maxSize Largest width and height of the atlas
+     * @param maxRegionSize Images wider or taller than this, like the background, stay separate
+     * @param padding Transparent pixels between packed images
+     */
+    public void buildAtlas(int maxSize, int maxRegionSize, int padding) {
+        long start = System.nanoTime();
+        try {
+            Map<String, Path> packable = new TreeMap<>();
+            for (Path file : listImages()) {
+                Sprite sprite = Sprite.of(key(file.toString()));
+                if (sprite.getWidth() <= maxRegionSize && sprite.getHeight() <= maxRegionSize) {
+                    packable.put(key(file.toString()), file);
+                }
+            }
+
+            TextureAtlas packed = TextureAtlas.pack(packable, maxSize, padding);
+            Path file = Files.createTempFile("atlas", IMAGE_EXTENSION);
+            file.toFile().deleteOnExit();
+            packed.write(file);
+
+            atlasImage = load(key(file.toString()));
+            atlas = packed;
+            spriteRegions.clear();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to build the texture atlas, drawing images separately", e);
+            return;
+        }
+
+        long nanos = System.nanoTime() - start;
+        LOGGER.info(() -> String.format("Packed %d images into a %dx%d atlas in %.1f ms",
+                                        atlas.size(), atlas.getSize(), atlas.getSize(), nanos / 1e6));
+    }
+
+    /**
+     * Loads every image in the asset directory that isn't in the atlas up
+     * front, so nothing is decoded mid-game. Files that fail to load are
+     * logged and skipped; they fail again when first drawn.
+     */
+    public void preloadAll() {
+        try {
+            for (Path file : listImages()) {
+                String key = key(file.toString());
+                if (images.containsKey(key) || (atlas != null && atlas.getRegion(key) != null)) {
+                    continue;
+                }
+                try {
+                    load(key);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Failed to preload " + file, e);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to list assets in " + directory, e);
+        }
+
+        LOGGER.info(() -> String.format("Preloaded %d images, %.1f KiB of textures, in %.1f ms",
+                                        getLoadedCount(), textureBytes / 1024.0, loadNanos / 1e6));
+    }
+
+    /**
+     * Gets the shared image for a file, loading it on first use
+     *
+     * @param path Path of the image, e.g. "res/barrel.png"
+     */
+    public Image getImage(String path) {
+        requests++;
+        String key = key(path);
+        Image image = images.get(key);
+        return image != null ? image : load(key);
+    }
+
+    /**
+     * Gets the shared image a sprite describes
+     */
+    public Image getImage(Sprite sprite) {
+        Image image = spriteImages.get(sprite);
+        if (image == null) {
+            image = getImage(sprite.getPath());
+            spriteImages.put(sprite, image);
+        } else {
+            requests++;
+        }
+        return image;
+    }
+
+    /**
+     * Gets the shared font for a file at a size, loading it on first use
+     *
+     * @param path Path of the font, e.g. "res/FSO8BITR.TTF"
+     * @param size Size of the font in points
+     */
+    public Font getFont(String path, int size) {
+        String key = key(path) + "@" + size;
+        Font font = fonts.get(key);
+        if (font == null) {
+            AssetLoadEvent event = new AssetLoadEvent();
+            event.begin();
+            long start = System.nanoTime();
+            font = new Font(key(path), size);
+            loadNanos += System.nanoTime() - start;
+            event.path = key(path);
+            event.kind = AssetLoadEvent.FONT;
+            event.fontSize = size;
+            event.commit();
+            fonts.put(key, font);
+        }
+        return font;
+    }
+
+    /**
+     * Gets where a sprite lies in the atlas
+     *
+     * @return The region, or null if there is no atlas or the sprite isn't packed in it
+     */
+    public TextureAtlas.Region getAtlasRegion(Sprite sprite) {
+        if (atlas == null) {
+            return null;
+        }
+        TextureAtlas.Region region = spriteRegions.get(sprite);
+        if (region == null && !spriteRegions.containsKey(sprite)) {
+            region = atlas.getRegion(key(sprite.getPath()));
+            spriteRegions.put(sprite, region);
+        }
+        return region;
+    }
+
+    /**
+     * Gets the atlas texture
+     *
+     * @return The image, or null if no atlas was built
+     */
+    public Image getAtlasImage() {
+        return atlasImage;
+    }
+
+    /**
+     * Gets the number of distinct images loaded
+     */
+    public int getLoadedCount() {
+        return images.size();
+    }
+
+    /**
+     * Gets the number of distinct fonts and sizes loaded
+     */
+    public int getFontCount() {
+        return fonts.size();
+    }
+
+    /**
+     * Gets the total time spent loading images and fonts, in nanoseconds
+     */
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    /**
+     * Gets the estimated texture memory of all loaded images, including
+     * composed static layers, in bytes
+     */
+    public long getTextureBytes() {
+        return textureBytes;
+    }
+
+    /**
+     * Gets how many times an image was asked for, including the ones that were loaded
+     */
+    public long getRequestCount() {
+        return requests;
+    }
+
+    /**
+     * Adds an image loaded outside the manager, such as a composed static
+     * layer, to the texture memory statistics
+     */
+    void countTexture(Image image) {
+        textureBytes += (long) image.getWidth() * (long) image.getHeight() * BYTES_PER_PIXEL;
+    }
+
+    private Image load(String key) {
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Image image = new Image(key);
+        loadNanos += System.nanoTime() - start;
+        event.path = key;
+        event.kind = AssetLoadEvent.IMAGE;
+        event.commit();
+        countTexture(image);
+        images.put(key, image);
+        return image;
+    }
+
+    private List<Path> listImages() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().toLowerCase().endsWith(IMAGE_EXTENSION))
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+
+    // The same file always maps to the same key, however the path was written
+    private static String key(String path) {
+        return Paths.get(path).normalize().toString().replace('\\', '/');
+    }
+}
@@ -0,0 +1,64 @@
+package game.render;
+
+import bagel.Font;
+import game.core.GameSettings;
+import game.core.GameWorld;
+
+/**
+ * Draws the heads-up display over the world: score and time left, and on
+ * levels with blasters or monkeys the Donkey's health and Mario's bullets. Positions and the font
+ * come from the typed settings; each line is only formatted again when its number changes.
+ */
+public class HudRenderer {
+    private static final String SCORE_FORMAT = "SCORE %d";
+    private static final String TIME_LEFT_FORMAT = "TIME LEFT %d";
+    private static final String DONKEY_HEALTH_FORMAT = "Donkey Health %d";
+    private static final String BULLET_FORMAT = "Bullet %d";
+
+    private static final int SCORE_DISPLAY_OFFSET_Y = 30;
+    private static final int BULLET_DISPLAY_OFFSET_Y = 30;
+
+    private final int scoreX;
+    private final int scoreY;
+    private final int healthX;
+    private final int healthY;
+
+    private final TextLine score;
+    private final TextLine timeLeft;
+    private final TextLine donkeyHealth;
+    private final TextLine bullets;
+
+    /**
+     * @param assets Source of the shared HUD font
+     * @param settings Settings with the HUD font size and positions
+     */
+    public HudRenderer(AssetManager assets, GameSettings settings) {
+        this.scoreX = settings.getScoreX();
+        this.scoreY = settings.getScoreY();
+        this.healthX = settings.getDonkeyHealthX();
+        this.healthY = settings.getDonkeyHealthY();
+
+        Font font = assets.getFont(settings.getFont(), settings.getScoreFontSize());
+        this.score = TextLine.formatted(font, SCORE_FORMAT, 0);
+        this.timeLeft = TextLine.formatted(font, TIME_LEFT_FORMAT, 0);
+        this.donkeyHealth = TextLine.formatted(font, DONKEY_HEALTH_FORMAT, 0);
+        this.bullets = TextLine.formatted(font, BULLET_FORMAT, 0);
+    }
+
+    /**
+     * Draws the HUD for the world's current state
+     */
+    public void render(GameWorld world) {
+        score.setValue(world.getMario().getFinalScore());
+        timeLeft.setValue(world.getTimeLeft());
+        score.draw(scoreX, scoreY);
+        timeLeft.draw(scoreX, scoreY + SCORE_DISPLAY_OFFSET_Y);
+
+        if (world.isCombatLevel()) {
+            donkeyHealth.setValue(world.getDonkey().getHealth());
+            bullets.setValue(world.getMario().getBulletCount());
+            donkeyHealth.draw(healthX, healthY);
+            bullets.draw(healthX, healthY + BULLET_DISPLAY_OFFSET_Y);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package game.render;
+
+import bagel.Font;
+import game.diagnostics.FrameProfiler;
+import game.diagnostics.LatencyHistogram;
+import game.diagnostics.Phase;
+import java.util.Locale;
+
+/**
+ * Draws the p50, p99 and maximum time of every profiled phase, in
+ * microseconds, over the gameplay, followed by how many sprites the last
+ * frame drew and how often it switched textures. The lines are formatted
+ * again every {@value #REFRESH_FRAMES} frames rather than every frame, so the
+ * overlay stays readable and adds little to the phases it measures. Hidden
+ * until toggled on.
+ */
+public class ProfilerOverlay {
+    private static final String HEADER = "PHASE  P50  P99  MAX (US)";
+    private static final String ROW_FORMAT = "%s  %.1f  %.1f  %.1f";
+    private static final String BATCH_FORMAT = "SPRITES %d  SWITCHES %d";
+    private static final int REFRESH_FRAMES = 30;
+    private static final double LINE_SPACING = 1.25;
+    private static final double NANOS_PER_MICRO = 1_000.0;
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final FrameProfiler profiler;
+    private final Font font;
+    private final int x;
+    private final int y;
+    private final double lineHeight;
+    private final String[] rows = new String[PHASES.length + 1];
+
+    private boolean visible = false;
+    private int framesUntilRefresh = 0;
+
+    /**
+     * @param profiler The profiler whose timings are shown
+     * @param font The overlay font
+     * @param fontSize The font's size, used to space the lines
+     * @param x Left edge of the overlay
+     * @param y Baseline of the header line
+     */
+    public ProfilerOverlay(FrameProfiler profiler, Font font, int fontSize, int x, int y) {
+        this.profiler = profiler;
+        this.font = font;
+        this.x = x;
+        this.y = y;
+        this.lineHeight = fontSize * LINE_SPACING;
+    }
+
+    /**
+     * Shows the overlay if it is hidden, hides it otherwise
+     */
+    public void toggle() {
+        visible = !visible;
+        framesUntilRefresh = 0;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    /**
+     * Draws the overlay if it is visible
+     *
+     * @param batch The batch the world was drawn with this frame
+     */
+    public void render(SpriteBatch batch) {
+        if (!visible) {
+            return;
+        }
+
+        if (framesUntilRefresh-- <= 0) {
+            refresh(batch);
+            framesUntilRefresh = REFRESH_FRAMES;
+        }
+
+        font.drawString(HEADER, x, y);
+        for (int i = 0; i < rows.length; i++) {
+            font.drawString(rows[i], x, y + (i + 1) * lineHeight);
+        }
+    }
+
+    private void refresh(SpriteBatch batch) {
+        for (int i = 0; i < PHASES.length; i++) {
+            LatencyHistogram histogram = profiler.get(PHASES[i]);
+            rows[i] = String.format(Locale.ROOT, ROW_FORMAT, PHASES[i].name(),
+                                    histogram.getPercentile(50) / NANOS_PER_MICRO,
+                                    histogram.getPercentile(99) / NANOS_PER_MICRO,
+                                    histogram.getMax() / NANOS_PER_MICRO);
+        }
+        rows[PHASES.length] = String.format(Locale.ROOT, BATCH_FORMAT, batch.getLastDrawCount(),
+                                            batch.getLastTextureSwitches());
+    }
+}
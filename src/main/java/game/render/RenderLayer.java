@@ -0,0 +1,20 @@
+package game.render;
+
+/**
+ * Draw layers of the world, back to front. A {@link SpriteBatch} draws
+ * everything on one layer before anything on the next, so Mario, on the
+ * last layer, is always on top.
+ */
+public enum RenderLayer {
+    BACKGROUND,
+    PLATFORMS,
+    LADDERS,
+    HAMMER,
+    BARRELS,
+    DONKEY_KONG,
+    BLASTERS,
+    BULLETS,
+    MONKEYS,
+    BANANAS,
+    MARIO
+}
@@ -0,0 +1,135 @@
+package game.render;
+
+import bagel.DrawOptions;
+import bagel.Image;
+import game.core.Sprite;
+import java.util.Arrays;
+
+/**
+ * Collects a frame's sprite draws and submits them sorted by
+ * {@link RenderLayer}, keeping submission order within a layer. Sprites
+ * packed in the texture atlas are drawn as sections of the one atlas
+ * texture, so a frame made of atlas sprites never switches textures.
+ * Storage is reused from frame to frame, so drawing allocates nothing
+ * once it has grown to the busiest frame.
+ */
+public class SpriteBatch {
+    private static final int INITIAL_CAPACITY = 256;
+    private static final RenderLayer[] LAYERS = RenderLayer.values();
+
+    private final AssetManager assets;
+    private final DrawOptions section = new DrawOptions();
+
+    // Queued draws
+    private Image[] images = new Image[INITIAL_CAPACITY];
+    private TextureAtlas.Region[] regions = new TextureAtlas.Region[INITIAL_CAPACITY];
+    private double[] xs = new double[INITIAL_CAPACITY];
+    private double[] ys = new double[INITIAL_CAPACITY];
+    private int count = 0;
+
+    // Indices of the queued draws on each layer, in submission order
+    private final int[][] layerDraws = new int[LAYERS.length][];
+    private final int[] layerSizes = new int[LAYERS.length];
+
+    // Statistics of the last flush
+    private int lastDrawCount = 0;
+    private int lastTextureSwitches = 0;
+
+    /**
+     * @param assets Source of the atlas and of the images not packed in it
+     */
+    public SpriteBatch(AssetManager assets) {
+        this.assets = assets;
+        for (int i = 0; i < layerDraws.length; i++) {
+            layerDraws[i] = new int[INITIAL_CAPACITY / 4];
+        }
+    }
+
+    /**
+     * Queues a sprite to be drawn centred on a point
+     */
+    public void draw(RenderLayer layer, Sprite sprite, double x, double y) {
+        TextureAtlas.Region region = assets.getAtlasRegion(sprite);
+        queue(layer, region != null ? assets.getAtlasImage() : assets.getImage(sprite), region, x, y);
+    }
+
+    private void queue(RenderLayer layer, Image image, TextureAtlas.Region region, double x, double y) {
+        if (count == images.length) {
+            grow(count * 2);
+        }
+
+        int i = count++;
+        images[i] = image;
+        regions[i] = region;
+        xs[i] = x;
+        ys[i] = y;
+
+        int l = layer.ordinal();
+        if (layerSizes[l] == layerDraws[l].length) {
+            layerDraws[l] = Arrays.copyOf(layerDraws[l], layerSizes[l] * 2);
+        }
+        layerDraws[l][layerSizes[l]++] = i;
+    }
+
+    /**
+     * Queues an image that isn't a sprite, such as a composed layer, to be drawn centred on a point
+     */
+    public void draw(RenderLayer layer, Image image, double x, double y) {
+        queue(layer, image, null, x, y);
+    }
+
+    /**
+     * Draws everything queued, back layer first, and empties the batch
+     */
+    public void flush() {
+        Image bound = null;
+        int switches = 0;
+        for (int l = 0; l < LAYERS.length; l++) {
+            int[] draws = layerDraws[l];
+            for (int k = 0, size = layerSizes[l]; k < size; k++) {
+                int i = draws[k];
+                Image image = images[i];
+                if (image != bound) {
+                    bound = image;
+                    switches++;
+                }
+
+                TextureAtlas.Region region = regions[i];
+                if (region != null) {
+                    section.setSection(region.getX(), region.getY(), region.getWidth(), region.getHeight());
+                    image.draw(xs[i], ys[i], section);
+                } else {
+                    image.draw(xs[i], ys[i]);
+                }
+            }
+            layerSizes[l] = 0;
+        }
+
+        lastDrawCount = count;
+        lastTextureSwitches = switches;
+        Arrays.fill(images, 0, count, null);
+        Arrays.fill(regions, 0, count, null);
+        count = 0;
+    }
+
+    /**
+     * Gets the number of sprites the last flush drew
+     */
+    public int getLastDrawCount() {
+        return lastDrawCount;
+    }
+
+    /**
+     * Gets how many times the last flush drew from a different texture than the sprite before
+     */
+    public int getLastTextureSwitches() {
+        return lastTextureSwitches;
+    }
+
+    private void grow(int capacity) {
+        images = Arrays.copyOf(images, capacity);
+        regions = Arrays.copyOf(regions, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+    }
+}
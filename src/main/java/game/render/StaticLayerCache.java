@@ -0,0 +1,237 @@
+package game.render;
+
+import bagel.Image;
+import game.core.ConfigSnapshot;
+import game.core.GameObject;
+import game.core.GameSettings;
+import game.core.GameWorld;
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.imageio.ImageIO;
+
+/**
+ * The parts of a level that never change after loading, the background,
+ * platforms and ladders, composed into one screen-sized image. Composing
+ * happens with Java2D the first time a level is drawn; after that the whole
+ * layer is a single draw per frame.
+ * <p>
+ * bagel never frees a texture, so every loaded layer is kept, one per level
+ * and configuration, and reused whenever that level is drawn again. Only
+ * {@link #invalidate()} drops them. Their size counts towards
+ * {@link AssetManager#getTextureBytes()}.
+ * <p>
+ * The next level's layer can be composed ahead of time on another thread
+ * with {@link #prepare}. The next frame loads it as a texture, so switching
+ * to that level later costs nothing.
+ */
+public class StaticLayerCache {
+    private static final Logger LOGGER = Logger.getLogger(StaticLayerCache.class.getName());
+
+    /**
+     * A composed layer and what it was composed from
+     */
+    private static final class Layer {
+        private final int level;
+        private final ConfigSnapshot config;
+        private final Path file;
+        private Image image;
+
+        Layer(int level, ConfigSnapshot config, Path file) {
+            this.level = level;
+            this.config = config;
+            this.file = file;
+        }
+
+        boolean isFor(GameWorld world) {
+            return isFor(world.getLevel(), world.getConfig());
+        }
+
+        boolean isFor(int level, ConfigSnapshot config) {
+            return this.level == level && this.config == config;
+        }
+    }
+
+    private final AssetManager assets;
+
+    // Decoded source images, kept so a level change only has to compose
+    private final Map<String, BufferedImage> sources = new ConcurrentHashMap<>();
+
+    // Composed by prepare, waiting for the render thread to load it
+    private final AtomicReference<Layer> prepared = new AtomicReference<>();
+
+    // Loaded layers; only the render thread adds to them, prepare checks them
+    private final List<Layer> loaded = new CopyOnWriteArrayList<>();
+
+    // The loaded layer drawn last, only touched by the render thread
+    private Layer current;
+
+    /**
+     * @param assets Where the loaded layers' texture memory is counted
+     */
+    public StaticLayerCache(AssetManager assets) {
+        this.assets = assets;
+    }
+
+    /**
+     * Gets the composed static layer of a world's level, composing it if
+     * that level and configuration has no loaded layer and it wasn't
+     * prepared. Must be called from the render thread.
+     *
+     * @throws UncheckedIOException If an image can't be read or the layer can't be written
+     */
+    public Image get(GameWorld world) {
+        Layer ready = prepared.getAndSet(null);
+        if (ready != null) {
+            if (find(ready.level, ready.config) == null) {
+                load(ready);
+            } else {
+                discard(ready);
+            }
+        }
+
+        if (current == null || !current.isFor(world)) {
+            current = find(world.getLevel(), world.getConfig());
+            if (current == null) {
+                try {
+                    current = compose(world);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to compose the static layer", e);
+                }
+                load(current);
+            }
+        }
+        return current.image;
+    }
+
+    /**
+     * Composes a world's layer ahead of time so that drawing it later doesn't
+     * have to. Does nothing if the layer is already loaded. Safe to call
+     * from any thread; failures are logged and the layer is composed when
+     * first drawn instead.
+     */
+    public void prepare(GameWorld world) {
+        if (find(world.getLevel(), world.getConfig()) != null) {
+            return;
+        }
+        try {
+            discard(prepared.getAndSet(compose(world)));
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Failed to prepare the static layer of level " + world.getLevel(), e);
+        }
+    }
+
+    /**
+     * Drops the loaded layers so the next {@link #get} composes again, e.g.
+     * after a configuration reload. Their textures stay allocated, so this
+     * is only for when the layers may have changed.
+     */
+    public void invalidate() {
+        discard(prepared.getAndSet(null));
+        loaded.clear();
+        current = null;
+    }
+
+    private Layer find(int level, ConfigSnapshot config) {
+        for (Layer layer : loaded) {
+            if (layer.isFor(level, config)) {
+                return layer;
+            }
+        }
+        return null;
+    }
+
+    // Turns a composed file into a texture; bagel needs the render thread for this
+    private void load(Layer layer) {
+        layer.image = new Image(layer.file.toString());
+        assets.countTexture(layer.image);
+        loaded.add(layer);
+        LOGGER.info(() -> String.format("Loaded the static layer of level %d, %.1f KiB of textures in total",
+                                        layer.level, assets.getTextureBytes() / 1024.0));
+        try {
+            Files.deleteIfExists(layer.file);
+        } catch (IOException e) {
+            layer.file.toFile().deleteOnExit();
+        }
+    }
+
+    // Deletes the file of a prepared layer that will never be loaded
+    private static void discard(Layer layer) {
+        if (layer == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(layer.file);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to delete " + layer.file, e);
+        }
+    }
+
+    private Layer compose(GameWorld world) throws IOException {
+        long start = System.nanoTime();
+        GameSettings settings = world.getConfig().getSettings();
+        int width = settings.getWindowWidth();
+        int height = settings.getWindowHeight();
+
+        BufferedImage layer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = layer.createGraphics();
+        try {
+            drawCentred(graphics, settings.getBackgroundImage(), width / 2.0, height / 2.0);
+            drawAll(graphics, world.getPlatforms());
+            drawAll(graphics, world.getLadders());
+        } finally {
+            graphics.dispose();
+        }
+
+        Path file = Files.createTempFile("static-layer", ".png");
+        file.toFile().deleteOnExit();
+        if (!ImageIO.write(layer, "png", file.toFile())) {
+            Files.deleteIfExists(file);
+            throw new IOException("No PNG writer available");
+        }
+
+        long nanos = System.nanoTime() - start;
+        LOGGER.info(() -> String.format("Composed the static layer of level %d in %.1f ms",
+                                        world.getLevel(), nanos / 1e6));
+        return new Layer(world.getLevel(), world.getConfig(), file);
+    }
+
+    private void drawAll(Graphics2D graphics, List<? extends GameObject> objects) throws IOException {
+        for (GameObject object : objects) {
+            if (object.isVisible()) {
+                drawCentred(graphics, object.getSprite().getPath(), object.getX(), object.getY());
+            }
+        }
+    }
+
+    private void drawCentred(Graphics2D graphics, String path, double x, double y) throws IOException {
+        BufferedImage source = source(path);
+        AffineTransform position = AffineTransform.getTranslateInstance(x - source.getWidth() / 2.0,
+                                                                        y - source.getHeight() / 2.0);
+        graphics.drawImage(source, position, null);
+    }
+
+    private BufferedImage source(String path) throws IOException {
+        BufferedImage source = sources.get(path);
+        if (source == null) {
+            source = ImageIO.read(new File(path));
+            if (source == null) {
+                throw new IOException("Unsupported image: " + path);
+            }
+            sources.put(path, source);
+        }
+        return source;
+    }
+}
@@ -0,0 +1,80 @@
+package game.render;
+
+import bagel.Font;
+
+/**
+ * A line of text drawn every frame whose string rarely changes. The string
+ * and its width are worked out once, and for a line showing a number again
+ * only when the number changes, so drawing an unchanged line formats nothing.
+ */
+public final class TextLine {
+    private final Font font;
+    private final String format;
+
+    private String text;
+    private double width;
+    private int value;
+
+    private TextLine(Font font, String format, String text) {
+        this.font = font;
+        this.format = format;
+        setText(text);
+    }
+
+    /**
+     * Creates a line that always shows the same text
+     */
+    public static TextLine fixed(Font font, String text) {
+        return new TextLine(font, null, text);
+    }
+
+    /**
+     * Creates a line that shows a number
+     *
+     * @param format Format with a single %d for the number, e.g. "SCORE %d"
+     * @param value The number shown at first
+     */
+    public static TextLine formatted(Font font, String format, int value) {
+        TextLine line = new TextLine(font, format, String.format(format, value));
+        line.value = value;
+        return line;
+    }
+
+    /**
+     * Sets the number shown, formatting the text again only if it changed
+     *
+     * @throws IllegalStateException If the line shows fixed text
+     */
+    public void setValue(int value) {
+        if (format == null) {
+            throw new IllegalStateException("Line has fixed text: " + text);
+        }
+        if (value != this.value) {
+            this.value = value;
+            setText(String.format(format, value));
+        }
+    }
+
+    /**
+     * Draws the text starting at a point
+     */
+    public void draw(double x, double y) {
+        font.drawString(text, x, y);
+    }
+
+    /**
+     * Draws the text centred horizontally in a given width
+     */
+    public void drawCentred(double areaWidth, double y) {
+        font.drawString(text, (areaWidth - width) / 2.0, y);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    private void setText(String text) {
+        this.text = text;
+        this.width = font.getWidth(text);
+    }
+}
@@ -0,0 +1,178 @@
+package game.render;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/**
+ * Many small images packed into one, with the region each one occupies.
+ * Packing uses shelves: images are placed tallest first, left to right,
+ * starting a new shelf when a row is full. Built with Java2D, so it needs
+ * no GL context; the packed image is written to a file for bagel to load.
+ */
+public final class TextureAtlas {
+    /**
+     * Where one packed image lies in the atlas, in pixels
+     */
+    public static final class Region {
+        private final int x;
+        private final int y;
+        private final int width;
+        private final int height;
+
+        Region(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getX() {
+            return x;
+        }
+
+        public int getY() {
+            return y;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+    }
+
+    private static final int MIN_SIZE = 64;
+
+    private final BufferedImage image;
+    private final Map<String, Region> regions;
+
+    private TextureAtlas(BufferedImage image, Map<String, Region> regions) {
+        this.image = image;
+        this.regions = regions;
+    }
+
+    /**
+     * Packs images into the smallest square power-of-two atlas they fit in.
+     * Images that don't fit, even alone, are left out and keep being drawn
+     * from their own texture.
+     *
+     * @param images Packed image files by the key to look their region up with
+     * @param maxSize Largest width and height of the atlas
+     * @param padding Transparent pixels kept between regions so filtering doesn't bleed
+     * @throws IOException If an image can't be read
+     */
+    public static TextureAtlas pack(Map<String, Path> images, int maxSize, int padding) throws IOException {
+        List<String> keys = new ArrayList<>();
+        Map<String, BufferedImage> decoded = new HashMap<>();
+        for (Map.Entry<String, Path> entry : images.entrySet()) {
+            BufferedImage decodedImage = ImageIO.read(entry.getValue().toFile());
+            if (decodedImage == null) {
+                throw new IOException("Unsupported image: " + entry.getValue());
+            }
+            if (decodedImage.getWidth() + padding <= maxSize && decodedImage.getHeight() + padding <= maxSize) {
+                keys.add(entry.getKey());
+                decoded.put(entry.getKey(), decodedImage);
+            }
+        }
+
+        // Tallest first; the key breaks ties so the layout is always the same
+        keys.sort(Comparator.<String>comparingInt(key -> -decoded.get(key).getHeight())
+                            .thenComparing(Comparator.naturalOrder()));
+
+        int size = MIN_SIZE;
+        Map<String, Region> layout = layout(keys, decoded, size, padding);
+        while (layout == null && size < maxSize) {
+            size = Math.min(size * 2, maxSize);
+            layout = layout(keys, decoded, size, padding);
+        }
+        if (layout == null) {
+            // Even the largest atlas is full; pack as many as fit in order
+            while (layout == null) {
+                keys.remove(keys.size() - 1);
+                layout = layout(keys, decoded, size, padding);
+            }
+        }
+
+        BufferedImage atlas = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = atlas.createGraphics();
+        try {
+            for (String key : keys) {
+                Region region = layout.get(key);
+                graphics.drawImage(decoded.get(key), region.x, region.y, null);
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return new TextureAtlas(atlas, Collections.unmodifiableMap(layout));
+    }
+
+    // Shelf-packs the images into a square, or returns null if they don't fit
+    private static Map<String, Region> layout(List<String> keys, Map<String, BufferedImage> images,
+                                              int size, int padding) {
+        Map<String, Region> layout = new HashMap<>();
+        int x = padding;
+        int y = padding;
+        int shelfHeight = 0;
+        for (String key : keys) {
+            BufferedImage image = images.get(key);
+            if (x + image.getWidth() + padding > size) {
+                x = padding;
+                y += shelfHeight + padding;
+                shelfHeight = 0;
+            }
+            if (x + image.getWidth() + padding > size || y + image.getHeight() + padding > size) {
+                return null;
+            }
+            layout.put(key, new Region(x, y, image.getWidth(), image.getHeight()));
+            x += image.getWidth() + padding;
+            shelfHeight = Math.max(shelfHeight, image.getHeight());
+        }
+        return layout;
+    }
+
+    /**
+     * Writes the packed image as a PNG
+     *
+     * @throws IOException If the file can't be written
+     */
+    public void write(Path file) throws IOException {
+        if (!ImageIO.write(image, "png", file.toFile())) {
+            throw new IOException("No PNG writer available");
+        }
+    }
+
+    /**
+     * Gets where an image was packed
+     *
+     * @param key The key the image was packed under
+     * @return The region, or null if the image isn't in the atlas
+     */
+    public Region getRegion(String key) {
+        return regions.get(key);
+    }
+
+    /**
+     * Gets the number of images packed
+     */
+    public int size() {
+        return regions.size();
+    }
+
+    /**
+     * Gets the width and height of the atlas in pixels
+     */
+    public int getSize() {
+        return image.getWidth();
+    }
+}
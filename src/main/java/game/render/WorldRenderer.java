@@ -0,0 +1,124 @@
+package game.render;
+
+import game.core.GameObject;
+import game.core.GameSettings;
+import game.core.GameWorld;
+import game.core.Sprite;
+import game.ecs.EntityStore;
+import game.entities.ProjectilePool;
+import java.util.List;
+
+/**
+ * Draws a {@link GameWorld} with bagel. This is the only place entity
+ * sprites are turned into loaded images, so the simulation itself stays headless.
+ * Everything goes through a {@link SpriteBatch}, one {@link RenderLayer} per kind of entity.
+ * The background, platforms and ladders never change during a level, so
+ * by default they are drawn as one image from a {@link StaticLayerCache}.
+ */
+public class WorldRenderer {
+    private final SpriteBatch batch;
+    private final StaticLayerCache staticLayer;
+
+    /**
+     * @param assets Source of the shared images entities are drawn with
+     * @param cacheStaticLayer Whether to compose the background, platforms and ladders into one cached image
+     */
+    public WorldRenderer(AssetManager assets, boolean cacheStaticLayer) {
+        this.batch = new SpriteBatch(assets);
+        this.staticLayer = cacheStaticLayer ? new StaticLayerCache(assets) : null;
+    }
+
+    /**
+     * Renders all game entities, interpolated between the last two ticks
+     *
+     * @param world The world to draw
+     * @param alpha How far between the previous and the current tick to draw, in [0, 1]
+     */
+    public void render(GameWorld world, double alpha) {
+        GameSettings settings = world.getConfig().getSettings();
+        double centreX = settings.getWindowWidth() / 2.0;
+        double centreY = settings.getWindowHeight() / 2.0;
+        if (staticLayer != null) {
+            batch.draw(RenderLayer.BACKGROUND, staticLayer.get(world), centreX, centreY);
+        } else {
+            batch.draw(RenderLayer.BACKGROUND, Sprite.of(settings.getBackgroundImage()), centreX, centreY);
+            drawAll(RenderLayer.PLATFORMS, alpha, world.getPlatforms());
+            drawAll(RenderLayer.LADDERS, alpha, world.getLadders());
+        }
+
+        draw(RenderLayer.HAMMER, alpha, world.getHammer());
+        drawAll(RenderLayer.BARRELS, alpha, world.getEntities(), EntityStore.BARREL);
+        draw(RenderLayer.DONKEY_KONG, alpha, world.getDonkey());
+
+        drawAll(RenderLayer.BLASTERS, alpha, world.getBlasters());
+        drawAll(RenderLayer.BULLETS, alpha, world.getBullets());
+        drawAll(RenderLayer.MONKEYS, alpha, world.getEntities(), EntityStore.MONKEY);
+        drawAll(RenderLayer.BANANAS, alpha, world.getBananas());
+
+        // Mario's layer is the last one, so he appears on top
+        draw(RenderLayer.MARIO, alpha, world.getMario());
+
+        batch.flush();
+    }
+
+    /**
+     * Composes a world's static layer ahead of time, e.g. for the level after
+     * the current one. Safe to call from any thread.
+     */
+    public void prepareStaticLayer(GameWorld world) {
+        if (staticLayer != null) {
+            staticLayer.prepare(world);
+        }
+    }
+
+    /**
+     * Checks whether the background, platforms and ladders are drawn from a cached image
+     */
+    public boolean isCachingStaticLayer() {
+        return staticLayer != null;
+    }
+
+    /**
+     * Makes the next frame compose the static layer again, e.g. after its images changed
+     */
+    public void invalidateStaticLayer() {
+        if (staticLayer != null) {
+            staticLayer.invalidate();
+        }
+    }
+
+    /**
+     * Gets the batch the world is drawn with, e.g. for its statistics
+     */
+    public SpriteBatch getBatch() {
+        return batch;
+    }
+
+    private void drawAll(RenderLayer layer, double alpha, List<? extends GameObject> objects) {
+        for (GameObject object : objects) {
+            draw(layer, alpha, object);
+        }
+    }
+
+    private void drawAll(RenderLayer layer, double alpha, ProjectilePool projectiles) {
+        for (int i = 0; i < projectiles.size(); i++) {
+            batch.draw(layer, projectiles.getSprite(i), projectiles.getInterpolatedX(i, alpha),
+                       projectiles.getInterpolatedY(i, alpha));
+        }
+    }
+
+    private void drawAll(RenderLayer layer, double alpha, EntityStore entities, int componentMask) {
+        for (int i = 0; i < entities.size(); i++) {
+            if (entities.has(i, componentMask) && !entities.isDestroyed(i)) {
+                batch.draw(layer, entities.getSprite(i), entities.getInterpolatedX(i, alpha),
+                           entities.getInterpolatedY(i, alpha));
+            }
+        }
+    }
+
+    private void draw(RenderLayer layer, double alpha, GameObject object) {
+        if (object.isVisible()) {
+            batch.draw(layer, object.getSprite(), object.getInterpolatedX(alpha), object.getInterpolatedY(alpha));
+        }
+    }
+}
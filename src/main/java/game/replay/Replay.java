@@ -0,0 +1,191 @@
+package game.replay;
+
+import game.core.GameInput;
+import game.core.GameWorld;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A recorded run of one level: the starting conditions, the per-tick input as
+ * run-length encoded action bits, and the outcome the recording produced.
+ *
+ * <p>File layout (all integers are unsigned LEB128 varints):
+ * <pre>
+ *   "SDKR"  magic
+ *   u8      format version
+ *   varint  level (a u8 in version 1 files)
+ *   varint  starting score
+ *   varint  tick count
+ *   varint  run count
+ *   varint  run * run count, each (length &lt;&lt; 6 | action bits)
+ *   u8      recorded status (0 playing, 1 lost, 2 won)
+ *   varint  recorded final score
+ * </pre>
+ * A typical level is a few hundred runs, so a file is a few hundred bytes.
+ */
+public final class Replay {
+    /** Conventional file extension for replays */
+    public static final String FILE_EXTENSION = ".sdkr";
+
+    private static final byte[] MAGIC = {'S', 'D', 'K', 'R'};
+    private static final int VERSION = 2;
+    private static final int VERSION_U8_LEVEL = 1;
+    static final int ACTION_BITS = 6;
+    static final int ACTION_MASK = (1 << ACTION_BITS) - 1;
+
+    private final int level;
+    private final int startingScore;
+    private final int tickCount;
+    private final int[] runs;
+    private final GameWorld.Status status;
+    private final int finalScore;
+
+    Replay(int level, int startingScore, int tickCount, int[] runs, GameWorld.Status status, int finalScore) {
+        this.level = level;
+        this.startingScore = startingScore;
+        this.tickCount = tickCount;
+        this.runs = runs;
+        this.status = status;
+        this.finalScore = finalScore;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getStartingScore() {
+        return startingScore;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    public int getRunCount() {
+        return runs.length;
+    }
+
+    /**
+     * Gets the input held for the whole of the given run
+     */
+    public GameInput getRunInput(int run) {
+        return GameInput.of(runs[run] & ACTION_MASK);
+    }
+
+    /**
+     * Gets the number of consecutive ticks in the given run
+     */
+    public int getRunLength(int run) {
+        return runs[run] >>> ACTION_BITS;
+    }
+
+    /**
+     * Gets the status the level ended in when it was recorded
+     */
+    public GameWorld.Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the end-screen score when it was recorded
+     */
+    public int getFinalScore() {
+        return finalScore;
+    }
+
+    /**
+     * Encodes this replay in the binary file format
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + runs.length * 2);
+        out.write(MAGIC, 0, MAGIC.length);
+        out.write(VERSION);
+        writeVarint(out, level);
+        writeVarint(out, startingScore);
+        writeVarint(out, tickCount);
+        writeVarint(out, runs.length);
+        for (int run : runs) {
+            writeVarint(out, run);
+        }
+        out.write(status.ordinal());
+        writeVarint(out, finalScore);
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes this replay to a file
+     */
+    public void write(Path path) throws IOException {
+        Files.write(path, toBytes());
+    }
+
+    /**
+     * Decodes a replay from the binary file format
+     *
+     * @throws IOException If the data is not a valid replay
+     */
+    public static Replay fromBytes(byte[] data) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        try {
+            for (byte expected : MAGIC) {
+                if (in.get() != expected) {
+                    throw new IOException("Not a replay file");
+                }
+            }
+            int version = in.get() & 0xFF;
+            if (version != VERSION && version != VERSION_U8_LEVEL) {
+                throw new IOException("Unsupported replay version: " + version);
+            }
+
+            int level = version == VERSION_U8_LEVEL ? in.get() & 0xFF : readVarint(in);
+            int startingScore = readVarint(in);
+            int tickCount = readVarint(in);
+            int[] runs = new int[readVarint(in)];
+            for (int i = 0; i < runs.length; i++) {
+                runs[i] = readVarint(in);
+            }
+
+            int statusOrdinal = in.get() & 0xFF;
+            if (statusOrdinal >= GameWorld.Status.values().length) {
+                throw new IOException("Invalid replay status: " + statusOrdinal);
+            }
+            int finalScore = readVarint(in);
+
+            return new Replay(level, startingScore, tickCount, runs,
+                    GameWorld.Status.values()[statusOrdinal], finalScore);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated replay file", e);
+        }
+    }
+
+    /**
+     * Reads a replay from a file
+     */
+    public static Replay read(Path path) throws IOException {
+        return fromBytes(Files.readAllBytes(path));
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(ByteBuffer in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = in.get() & 0xFF;
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in replay file");
+    }
+}
@@ -0,0 +1,68 @@
+package game.replay;
+
+import game.core.Config;
+import game.core.GameInput;
+import game.core.GameWorld;
+import game.level.LevelSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Re-simulates recorded runs headlessly as fast as possible.
+ *
+ * <p>Usage: {@code ReplayPlayer <replay file>...} prints, for each file, the
+ * re-simulated outcome, whether it matches the recording and how long it took.
+ */
+public final class ReplayPlayer {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private ReplayPlayer() {}
+
+    /**
+     * Plays a replay from the start of its level
+     *
+     * @param replay The recorded run
+     * @param levels The configuration and layouts to simulate with
+     * @return The world in the state the replay left it
+     */
+    public static GameWorld play(Replay replay, LevelSource levels) {
+        GameWorld world = new GameWorld(levels.getConfig(), levels.get(replay.getLevel()), replay.getStartingScore());
+
+        for (int run = 0; run < replay.getRunCount(); run++) {
+            GameInput input = replay.getRunInput(run);
+            for (int i = replay.getRunLength(run); i > 0; i--) {
+                world.tick(input);
+            }
+        }
+        return world;
+    }
+
+    /**
+     * Checks whether a re-simulated world ended the way the recording did
+     */
+    public static boolean matchesRecording(Replay replay, GameWorld world) {
+        return world.getStatus() == replay.getStatus()
+                && world.getCurrentFrame() == replay.getTickCount()
+                && world.getFinalScore() == replay.getFinalScore();
+    }
+
+    public static void main(String[] args) throws IOException {
+        LevelSource levels = LevelSource.of(Config.snapshot());
+
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            Replay replay = Replay.read(path);
+
+            long start = System.nanoTime();
+            GameWorld world = play(replay, levels);
+            double millis = (System.nanoTime() - start) / NANOS_PER_MILLI;
+
+            System.out.printf("%s: level %d, %d ticks in %d runs, %s with score %d (%s) in %.2f ms%n",
+                    path.getFileName(), replay.getLevel(), replay.getTickCount(), replay.getRunCount(),
+                    world.getStatus(), world.getFinalScore(),
+                    matchesRecording(replay, world) ? "matches recording" : "DIFFERS from recording",
+                    millis);
+        }
+    }
+}
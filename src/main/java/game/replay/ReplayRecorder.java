@@ -0,0 +1,84 @@
+package game.replay;
+
+import game.core.GameInput;
+import game.core.GameWorld;
+import java.util.Arrays;
+
+/**
+ * Records the input consumed by each tick of one level as run-length
+ * encoded action bits. Recording a tick only touches a preallocated array
+ * unless a new run outgrows it.
+ */
+public class ReplayRecorder {
+    private static final int INITIAL_RUN_CAPACITY = 256;
+    private static final int MAX_RUN_LENGTH = Integer.MAX_VALUE >>> Replay.ACTION_BITS;
+
+    private final int level;
+    private final int startingScore;
+    private int[] runs = new int[INITIAL_RUN_CAPACITY];
+    private int runCount = 0;
+    private int tickCount = 0;
+
+    /**
+     * Starts a recording for a level
+     *
+     * @param level The level being played
+     * @param startingScore The score carried into the level
+     */
+    public ReplayRecorder(int level, int startingScore) {
+        this.level = level;
+        this.startingScore = startingScore;
+    }
+
+    /**
+     * Appends the input of one tick
+     */
+    public void record(GameInput input) {
+        int bits = input.getBits();
+        tickCount++;
+
+        if (runCount > 0) {
+            int last = runs[runCount - 1];
+            if ((last & Replay.ACTION_MASK) == bits && (last >>> Replay.ACTION_BITS) < MAX_RUN_LENGTH) {
+                runs[runCount - 1] = last + (1 << Replay.ACTION_BITS);
+                return;
+            }
+        }
+
+        if (runCount == runs.length) {
+            runs = Arrays.copyOf(runs, runs.length * 2);
+        }
+        runs[runCount++] = (1 << Replay.ACTION_BITS) | bits;
+    }
+
+    /**
+     * Drops the recorded ticks from the given tick onwards, e.g. after the
+     * player rewound, so the recording follows the timeline that is kept
+     */
+    public void truncate(int ticks) {
+        while (tickCount > ticks) {
+            int last = runs[runCount - 1];
+            int length = last >>> Replay.ACTION_BITS;
+            int excess = tickCount - ticks;
+            if (length <= excess) {
+                runCount--;
+                tickCount -= length;
+            } else {
+                runs[runCount - 1] = last - (excess << Replay.ACTION_BITS);
+                tickCount = ticks;
+            }
+        }
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Finishes the recording with the outcome of the world that was played
+     */
+    public Replay finish(GameWorld world) {
+        return new Replay(level, startingScore, tickCount, Arrays.copyOf(runs, runCount),
+                world.getStatus(), world.getFinalScore());
+    }
+}
@@ -0,0 +1,167 @@
+package game.replay;
+
+import game.core.GameInput;
+import game.core.GameWorld;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Fixed-size off-heap history of recent gameplay for rewinding.
+ * Every {@code keyframeInterval} ticks the world state is captured into a
+ * ring of keyframe slots, and the input of every tick into a ring of bytes.
+ * Rewinding to a frame restores the keyframe at or before it and re-simulates
+ * the few recorded ticks in between, so the cost is bounded by the keyframe
+ * interval and the memory by the window length, however long the session runs.
+ */
+public class RewindBuffer {
+    private static final Logger LOGGER = Logger.getLogger(RewindBuffer.class.getName());
+    private static final int NO_FRAME = -1;
+
+    private final int windowTicks;
+    private final int keyframeInterval;
+    private final int inputCapacity;
+    private final ByteBuffer inputs;
+    private final ByteBuffer[] keyframes;
+    private final int[] keyframeFrames;
+
+    private int firstFrame = 0;
+    private int endFrame = 0;
+
+    /**
+     * Allocates the history
+     *
+     * @param windowTicks How many ticks back the player may rewind
+     * @param keyframeInterval Ticks between captured keyframes
+     * @param keyframeBytes Capacity of a single keyframe
+     */
+    public RewindBuffer(int windowTicks, int keyframeInterval, int keyframeBytes) {
+        if (windowTicks <= 0 || keyframeInterval <= 0 || keyframeBytes <= 0) {
+            throw new IllegalArgumentException("Rewind window, keyframe interval and size must be positive");
+        }
+        this.windowTicks = windowTicks;
+        this.keyframeInterval = keyframeInterval;
+
+        // One extra slot so a full window is still covered right after a keyframe rolls over
+        int slotCount = (windowTicks + keyframeInterval - 1) / keyframeInterval + 1;
+        this.inputCapacity = slotCount * keyframeInterval;
+
+        ByteBuffer storage = ByteBuffer.allocateDirect(inputCapacity + slotCount * keyframeBytes);
+        this.inputs = slice(storage, 0, inputCapacity);
+        this.keyframes = new ByteBuffer[slotCount];
+        this.keyframeFrames = new int[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            keyframes[i] = slice(storage, inputCapacity + i * keyframeBytes, keyframeBytes);
+        }
+        reset(0);
+    }
+
+    private static ByteBuffer slice(ByteBuffer storage, int offset, int length) {
+        ByteBuffer view = storage.duplicate();
+        view.position(offset).limit(offset + length);
+        return view.slice();
+    }
+
+    /**
+     * Forgets all history, e.g. when a new level starts
+     *
+     * @param frame The world's current frame
+     */
+    public void reset(int frame) {
+        firstFrame = frame;
+        endFrame = frame;
+        Arrays.fill(keyframeFrames, NO_FRAME);
+    }
+
+    /**
+     * Records the tick the world is about to run. Must be called before
+     * every {@link GameWorld#tick} that should be rewindable.
+     */
+    public void record(GameWorld world, GameInput input) {
+        int frame = world.getCurrentFrame();
+
+        if (frame % keyframeInterval == 0) {
+            int slot = slotFor(frame);
+            ByteBuffer keyframe = keyframes[slot];
+            try {
+                keyframe.clear();
+                world.writeState(keyframe);
+                keyframe.flip();
+                keyframeFrames[slot] = frame;
+            } catch (BufferOverflowException e) {
+                keyframeFrames[slot] = NO_FRAME;
+                LOGGER.warning(() -> "World state too large for a rewind keyframe at frame " + frame);
+            }
+        }
+
+        inputs.put(frame % inputCapacity, (byte) input.getBits());
+        endFrame = frame + 1;
+    }
+
+    private int slotFor(int frame) {
+        return (frame / keyframeInterval) % keyframes.length;
+    }
+
+    /**
+     * Gets the earliest frame that can currently be rewound to
+     */
+    public int getOldestFrame() {
+        int oldest = Math.max(firstFrame, endFrame - windowTicks);
+        int keyframe = roundUpToKeyframe(Math.max(oldest, endFrame - inputCapacity));
+        while (keyframe < endFrame && keyframeFrames[slotFor(keyframe)] != keyframe) {
+            keyframe += keyframeInterval;
+        }
+        return Math.min(Math.max(oldest, keyframe), endFrame);
+    }
+
+    private int roundUpToKeyframe(int frame) {
+        return (frame + keyframeInterval - 1) / keyframeInterval * keyframeInterval;
+    }
+
+    /**
+     * Gets the frame after the latest recorded tick
+     */
+    public int getNewestFrame() {
+        return endFrame;
+    }
+
+    /**
+     * Puts the world back in the state it had at the given frame and discards
+     * the history after it. Frames outside the window are clamped to it.
+     *
+     * @return The frame the world is now at
+     */
+    public int rewindTo(GameWorld world, int frame) {
+        int target = Math.max(getOldestFrame(), Math.min(frame, endFrame));
+        if (target == world.getCurrentFrame()) {
+            truncate(target);
+            return target;
+        }
+
+        int keyframe = target / keyframeInterval * keyframeInterval;
+        ByteBuffer state = keyframes[slotFor(keyframe)];
+        if (keyframeFrames[slotFor(keyframe)] != keyframe) {
+            return world.getCurrentFrame();
+        }
+
+        state.rewind();
+        world.readState(state);
+        for (int tick = keyframe; tick < target; tick++) {
+            world.tick(GameInput.of(inputs.get(tick % inputCapacity)));
+        }
+
+        truncate(target);
+        return target;
+    }
+
+    // Drops history from the given frame onwards so it is re-recorded
+    private void truncate(int frame) {
+        endFrame = frame;
+        for (int i = 0; i < keyframeFrames.length; i++) {
+            if (keyframeFrames[i] > frame) {
+                keyframeFrames[i] = NO_FRAME;
+            }
+        }
+    }
+}
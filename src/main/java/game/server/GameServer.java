@@ -0,0 +1,221 @@
+package game.server;
+
+import game.core.Config;
+import game.core.ConfigSnapshot;
+import game.core.GameInput;
+import game.core.GameWorld;
+import game.diagnostics.LatencyHistogram;
+import game.level.LevelSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hosts many concurrent headless game sessions in one JVM.
+ *
+ * <p>Each client opens a TCP connection on the loopback interface and sends
+ * one byte with the starting level, then one byte of {@link game.core.Action}
+ * bits per tick. After every tick the server answers with five bytes: the
+ * status (0 playing, 1 lost, 2 won) followed by the score as a big-endian int.
+ * The connection is closed once the run is over.
+ *
+ * <p>Every connection is served by its own thread (see {@link SessionExecutors})
+ * and the number of sessions is capped by {@code server.maxSessions}, which
+ * bounds memory use. Aggregate metrics are logged every
+ * {@code server.metricsIntervalSeconds}; per-session metrics when a session ends.
+ */
+public final class GameServer {
+    private static final Logger LOGGER = Logger.getLogger(GameServer.class.getName());
+
+    // Protocol constants
+    private static final int STATUS_PLAYING = 0;
+    private static final int STATUS_LOST = 1;
+    private static final int STATUS_WON = 2;
+    private static final int RESPONSE_BYTES = 5;
+    private static final int INPUT_BUFFER_BYTES = 256;
+
+    private static final long NANOS_PER_MICRO = 1_000;
+
+    private final ConfigSnapshot config;
+    private final LevelSource levels;
+    private final int port;
+    private final Semaphore sessionSlots;
+    private final int metricsIntervalSeconds;
+    private final ServerMetrics metrics = new ServerMetrics();
+    private final AtomicInteger nextSessionId = new AtomicInteger();
+    private final ExecutorService levelBuilder;
+
+    /**
+     * Creates a server using the given configuration
+     */
+    public GameServer(ConfigSnapshot config) {
+        this.config = config;
+        this.levels = LevelSource.of(config);
+        this.port = config.getSettings().getServerPort();
+        this.sessionSlots = new Semaphore(config.getSettings().getServerMaxSessions());
+        this.metricsIntervalSeconds = config.getSettings().getServerMetricsIntervalSeconds();
+
+        // Builds every session's next level off the session threads; half
+        // the cores, so building doesn't compete with ticking
+        AtomicInteger builders = new AtomicInteger();
+        this.levelBuilder = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2),
+                task -> {
+                    Thread thread = new Thread(task, "level-builder-" + builders.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Accepts connections until the process is stopped
+     */
+    public void run() throws IOException {
+        ExecutorService sessions = SessionExecutors.newPerSessionExecutor();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "server-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(new MetricsReporter(), metricsIntervalSeconds,
+                metricsIntervalSeconds, TimeUnit.SECONDS);
+
+        try (ServerSocket server = new ServerSocket()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), sessionSlots.availablePermits());
+            LOGGER.info(() -> String.format("Game server listening on %s", server.getLocalSocketAddress()));
+
+            while (!server.isClosed()) {
+                Socket socket = server.accept();
+                if (!sessionSlots.tryAcquire()) {
+                    metrics.sessionRejected();
+                    closeQuietly(socket);
+                    continue;
+                }
+                sessions.execute(() -> {
+                    try {
+                        serve(socket);
+                    } finally {
+                        sessionSlots.release();
+                    }
+                });
+            }
+        } finally {
+            sessions.shutdownNow();
+            reporter.shutdownNow();
+            levelBuilder.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs one session for the lifetime of its connection
+     */
+    private void serve(Socket socket) {
+        metrics.sessionStarted();
+        GameSession session = null;
+
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+
+            int level = in.read();
+            if (!config.getSettings().getLevelSequence().contains(level)) {
+                return;
+            }
+            session = new GameSession(nextSessionId.incrementAndGet(), levels, level, levelBuilder);
+
+            byte[] inputs = new byte[INPUT_BUFFER_BYTES];
+            ByteBuffer responses = ByteBuffer.allocate(INPUT_BUFFER_BYTES * RESPONSE_BYTES);
+
+            while (!session.isFinished()) {
+                int count = in.read(inputs);
+                if (count < 0) {
+                    break;
+                }
+
+                responses.clear();
+                for (int i = 0; i < count && !session.isFinished(); i++) {
+                    metrics.tickCompleted(session.tick(GameInput.of(inputs[i])));
+                    responses.put((byte) statusOf(session.getWorld()));
+                    responses.putInt(session.getScore());
+                }
+                out.write(responses.array(), 0, responses.position());
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Session connection failed", e);
+        } finally {
+            metrics.sessionEnded();
+            if (session != null) {
+                session.close();
+                logSessionSummary(session);
+            }
+        }
+    }
+
+    private static int statusOf(GameWorld world) {
+        switch (world.getStatus()) {
+            case LOST:
+                return STATUS_LOST;
+            case WON:
+                return STATUS_WON;
+            default:
+                return STATUS_PLAYING;
+        }
+    }
+
+    private static void logSessionSummary(GameSession session) {
+        LatencyHistogram latency = session.getTickLatency();
+        LOGGER.fine(() -> String.format("Session %d ended: %s, score %d, %d ticks, tick p99 %d us, max %d us",
+                session.getId(), session.getWorld().getStatus(), session.getScore(), session.getTicks(),
+                latency.getPercentile(99) / NANOS_PER_MICRO, latency.getMax() / NANOS_PER_MICRO));
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Failed to close rejected connection", e);
+        }
+    }
+
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Periodically logs aggregate throughput and tick latency
+     */
+    private final class MetricsReporter implements Runnable {
+        private long lastTicks = 0;
+
+        @Override
+        public void run() {
+            long ticks = metrics.getTicks();
+            long ticksPerSecond = (ticks - lastTicks) / metricsIntervalSeconds;
+            lastTicks = ticks;
+
+            LatencyHistogram latency = metrics.getTickLatency();
+            LOGGER.info(String.format(
+                    "sessions active=%d total=%d rejected=%d, %d ticks/s, tick p50=%d us p99=%d us max=%d us",
+                    metrics.getActiveSessions(), metrics.getTotalSessions(), metrics.getRejectedSessions(),
+                    ticksPerSecond, latency.getPercentile(50) / NANOS_PER_MICRO,
+                    latency.getPercentile(99) / NANOS_PER_MICRO, latency.getMax() / NANOS_PER_MICRO));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        new GameServer(Config.snapshot()).run();
+    }
+}
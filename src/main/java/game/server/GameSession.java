@@ -0,0 +1,146 @@
+package game.server;
+
+import game.core.GameInput;
+import game.core.GameWorld;
+import game.diagnostics.LatencyHistogram;
+import game.level.LevelSequence;
+import game.level.LevelSource;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One player's run hosted by the server: the current level's {@link GameWorld},
+ * progression through the level sequence, and the session's own tick metrics.
+ * A session is only ever ticked by the thread serving its connection.
+ * <p>
+ * The level after the current one is built ahead of time on the server's
+ * level builder, so winning a level doesn't stall the tick that switches.
+ */
+public class GameSession {
+    private static final Logger LOGGER = Logger.getLogger(GameSession.class.getName());
+
+    private final int id;
+    private final LevelSource levels;
+    private final ExecutorService levelBuilder;
+    private final LatencyHistogram tickLatency = new LatencyHistogram();
+    private GameWorld world;
+    private Future<GameWorld> nextWorld;
+    private long ticks = 0;
+
+    /**
+     * Creates a session starting at the given level
+     *
+     * @param id Identifier used in logs
+     * @param levels The configuration and layouts this session plays
+     * @param level The level to start on
+     * @param levelBuilder Where the next level is built ahead of time
+     */
+    public GameSession(int id, LevelSource levels, int level, ExecutorService levelBuilder) {
+        this.id = id;
+        this.levels = levels;
+        this.levelBuilder = levelBuilder;
+        this.world = new GameWorld(levels.getConfig(), levels.get(level), 0);
+        prefetchNextLevel();
+    }
+
+    /**
+     * Advances the session by one tick, moving on to the next level of the sequence when one is won
+     *
+     * @return The time the tick took in nanoseconds, including any wait for the next level
+     */
+    public long tick(GameInput input) {
+        long start = System.nanoTime();
+
+        world.tick(input);
+        if (world.getStatus() == GameWorld.Status.WON && nextWorld != null) {
+            GameWorld next = takeNextLevel();
+            next.carryOverScore(world.getFinalScore());
+            world = next;
+            prefetchNextLevel();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        tickLatency.record(elapsed);
+        ticks++;
+        return elapsed;
+    }
+
+    /**
+     * Stops building the next level, e.g. once the connection is gone
+     */
+    public void close() {
+        if (nextWorld != null) {
+            nextWorld.cancel(true);
+            nextWorld = null;
+        }
+    }
+
+    private void prefetchNextLevel() {
+        LevelSequence sequence = levels.getConfig().getSettings().getLevelSequence();
+        if (!sequence.hasNext(world.getLevel())) {
+            nextWorld = null;
+            return;
+        }
+
+        int next = sequence.next(world.getLevel());
+        nextWorld = levelBuilder.submit(() -> buildLevel(next));
+    }
+
+    /**
+     * Takes the prefetched next level, waiting for it if it is still being
+     * built, or builds it now if building it failed
+     */
+    private GameWorld takeNextLevel() {
+        int next = levels.getConfig().getSettings().getLevelSequence().next(world.getLevel());
+        Future<GameWorld> pending = nextWorld;
+        nextWorld = null;
+        try {
+            return pending.get();
+        } catch (ExecutionException e) {
+            LOGGER.log(Level.WARNING, "Failed to prefetch level " + next + " of session " + id, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return buildLevel(next);
+    }
+
+    private GameWorld buildLevel(int level) {
+        return new GameWorld(levels.getConfig(), levels.get(level), 0);
+    }
+
+    /**
+     * Whether the run is over, either lost or with the last level won
+     */
+    public boolean isFinished() {
+        return world.getStatus() != GameWorld.Status.PLAYING;
+    }
+
+    /**
+     * Gets the score to report to the client: the final score once the run
+     * is won, otherwise Mario's running score
+     */
+    public int getScore() {
+        return world.getStatus() == GameWorld.Status.WON
+                ? world.getFinalScore()
+                : world.getMario().getFinalScore();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public GameWorld getWorld() {
+        return world;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public LatencyHistogram getTickLatency() {
+        return tickLatency;
+    }
+}
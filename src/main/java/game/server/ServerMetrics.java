@@ -0,0 +1,55 @@
+package game.server;
+
+import game.diagnostics.LatencyHistogram;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregate counters across all sessions hosted by a {@link GameServer}.
+ * Updated concurrently by session threads without locking.
+ */
+public class ServerMetrics {
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final LongAdder totalSessions = new LongAdder();
+    private final LongAdder rejectedSessions = new LongAdder();
+    private final LongAdder ticks = new LongAdder();
+    private final LatencyHistogram tickLatency = new LatencyHistogram();
+
+    void sessionStarted() {
+        activeSessions.incrementAndGet();
+        totalSessions.increment();
+    }
+
+    void sessionEnded() {
+        activeSessions.decrementAndGet();
+    }
+
+    void sessionRejected() {
+        rejectedSessions.increment();
+    }
+
+    void tickCompleted(long nanos) {
+        ticks.increment();
+        tickLatency.record(nanos);
+    }
+
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    public long getTotalSessions() {
+        return totalSessions.sum();
+    }
+
+    public long getRejectedSessions() {
+        return rejectedSessions.sum();
+    }
+
+    public long getTicks() {
+        return ticks.sum();
+    }
+
+    public LatencyHistogram getTickLatency() {
+        return tickLatency;
+    }
+}
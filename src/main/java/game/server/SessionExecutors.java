@@ -0,0 +1,42 @@
+package game.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Creates the executor that runs one task per session.
+ * The build targets Java 17, so virtual threads are looked up at runtime:
+ * on a JVM that has them every session gets its own virtual thread, otherwise
+ * sessions fall back to daemon platform threads with small stacks.
+ */
+final class SessionExecutors {
+    private static final Logger LOGGER = Logger.getLogger(SessionExecutors.class.getName());
+    private static final long FALLBACK_STACK_SIZE = 256 * 1024;
+
+    private SessionExecutors() {}
+
+    static ExecutorService newPerSessionExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ExecutorService executor = (ExecutorService) factory.invoke(null);
+            LOGGER.info("Running sessions on virtual threads");
+            return executor;
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            LOGGER.info("Virtual threads unavailable, running sessions on platform threads");
+            return Executors.newCachedThreadPool(platformThreadFactory());
+        }
+    }
+
+    private static ThreadFactory platformThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(null, task, "session-" + counter.incrementAndGet(), FALLBACK_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}